@@ -36,6 +36,7 @@ import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.database.LdapProvider;
 import org.traccar.database.OpenIdProvider;
+import org.traccar.database.PositionSummaryManager;
 import org.traccar.database.StatisticsManager;
 import org.traccar.forward.EventForwarder;
 import org.traccar.forward.EventForwarderJson;
@@ -58,8 +59,10 @@ import org.traccar.geocoder.GeoapifyGeocoder;
 import org.traccar.geocoder.GeocodeFarmGeocoder;
 import org.traccar.geocoder.GeocodeXyzGeocoder;
 import org.traccar.geocoder.Geocoder;
+import org.traccar.geocoder.GeocoderCache;
 import org.traccar.geocoder.GisgraphyGeocoder;
 import org.traccar.geocoder.GoogleGeocoder;
+import org.traccar.geocoder.JsonGeocoder;
 import org.traccar.geocoder.HereGeocoder;
 import org.traccar.geocoder.LocationIqGeocoder;
 import org.traccar.geocoder.MapQuestGeocoder;
@@ -85,7 +88,9 @@ import org.traccar.handler.FilterHandler;
 import org.traccar.handler.GeocoderHandler;
 import org.traccar.handler.GeolocationHandler;
 import org.traccar.handler.MapMatcherHandler;
+import org.traccar.handler.PositionSummaryHandler;
 import org.traccar.handler.SpeedLimitHandler;
+import org.traccar.mapmatcher.BatchingMapMatcher;
 import org.traccar.mapmatcher.MapMatcher;
 import org.traccar.mapmatcher.TraccarMapMatcher;
 import org.traccar.helper.LogAction;
@@ -98,6 +103,7 @@ import org.traccar.session.cache.CacheManager;
 import org.traccar.sms.HttpSmsClient;
 import org.traccar.sms.SmsManager;
 import org.traccar.sms.SnsSmsClient;
+import org.traccar.speedlimit.CachingSpeedLimitProvider;
 import org.traccar.speedlimit.OverpassSpeedLimitProvider;
 import org.traccar.speedlimit.SpeedLimitProvider;
 import org.traccar.storage.DatabaseStorage;
@@ -112,6 +118,7 @@ import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -214,7 +221,9 @@ public class MainModule extends AbstractModule {
 
     @Singleton
     @Provides
-    public static Geocoder provideGeocoder(Config config, Client client, StatisticsManager statisticsManager) {
+    public static Geocoder provideGeocoder(
+            Config config, Client client, StatisticsManager statisticsManager,
+            @Nullable GeocoderCache geocoderCache) {
         if (config.getBoolean(Keys.GEOCODER_ENABLE)) {
             String type = config.getString(Keys.GEOCODER_TYPE);
             String url = config.getString(Keys.GEOCODER_URL);
@@ -249,12 +258,28 @@ public class MainModule extends AbstractModule {
                 case "tencent" -> new TencentGeocoder(client, key, cacheSize, addressFormat);
                 default -> new GoogleGeocoder(client, url, key, language, cacheSize, addressFormat);
             };
+            if (geocoderCache != null && geocoder instanceof JsonGeocoder jsonGeocoder) {
+                jsonGeocoder.setCache(geocoderCache);
+            }
             geocoder.setStatisticsManager(statisticsManager);
             return geocoder;
         }
         return null;
     }
 
+    @Singleton
+    @Provides
+    public static GeocoderCache provideGeocoderCache(Config config) {
+        int cacheSize = config.getInteger(Keys.GEOCODER_CACHE_SIZE);
+        if (config.getBoolean(Keys.GEOCODER_ENABLE) && cacheSize > 0) {
+            String cacheFile = config.getString(Keys.GEOCODER_CACHE_FILE);
+            return new GeocoderCache(
+                    cacheSize, config.getInteger(Keys.GEOCODER_CACHE_PRECISION),
+                    cacheFile != null ? Path.of(cacheFile) : null);
+        }
+        return null;
+    }
+
     @Singleton
     @Provides
     public static GeolocationProvider provideGeolocationProvider(Config config, Client client) {
@@ -274,14 +299,22 @@ public class MainModule extends AbstractModule {
 
     @Singleton
     @Provides
-    public static SpeedLimitProvider provideSpeedLimitProvider(Config config, Client client) {
+    public static SpeedLimitProvider provideSpeedLimitProvider(
+            Config config, Client client, StatisticsManager statisticsManager) {
         if (config.getBoolean(Keys.SPEED_LIMIT_ENABLE)) {
             String type = config.getString(Keys.SPEED_LIMIT_TYPE, "overpass");
             String url = config.getString(Keys.SPEED_LIMIT_URL);
-            return switch (type) {
+            SpeedLimitProvider speedLimitProvider = switch (type) {
                 case "overpass" -> new OverpassSpeedLimitProvider(config, client, url);
                 default -> throw new IllegalArgumentException("Unknown speed limit provider");
             };
+            int cacheSize = config.getInteger(Keys.SPEED_LIMIT_CACHE_SIZE);
+            if (cacheSize > 0) {
+                speedLimitProvider = new CachingSpeedLimitProvider(
+                        speedLimitProvider, statisticsManager, cacheSize, config.getDouble(Keys.SPEED_LIMIT_CACHE_GRID),
+                        config.getLong(Keys.SPEED_LIMIT_CACHE_TIMEOUT) * 1000);
+            }
+            return speedLimitProvider;
         }
         return null;
     }
@@ -309,24 +342,33 @@ public class MainModule extends AbstractModule {
 
     @Singleton
     @Provides
-    public static MapMatcher provideMapMatcher(Config config, Client client) {
+    public static MapMatcher provideMapMatcher(Config config, Client client, Timer timer) {
         if (config.getBoolean(Keys.MAP_MATCHER_ENABLE)) {
             String type = config.getString(Keys.MAP_MATCHER_TYPE);
             String url = config.getString(Keys.MAP_MATCHER_URL);
             String key = config.getString(Keys.MAP_MATCHER_KEY);
-            return switch (type) {
-                case "traccar" -> new TraccarMapMatcher(client, url, key);
+            String batchUrl = config.getString(Keys.MAP_MATCHER_BATCH_URL);
+            MapMatcher mapMatcher = switch (type) {
+                case "traccar" -> new TraccarMapMatcher(client, url, key, batchUrl);
                 default -> throw new IllegalArgumentException("Unknown map matcher provider");
             };
+            long batchWindow = config.getLong(Keys.MAP_MATCHER_BATCH_WINDOW);
+            int cacheSize = config.getInteger(Keys.MAP_MATCHER_CACHE_SIZE);
+            if (batchWindow > 0 || cacheSize > 0) {
+                mapMatcher = new BatchingMapMatcher(
+                        mapMatcher, timer, batchWindow, cacheSize, config.getDouble(Keys.MAP_MATCHER_CACHE_GRID));
+            }
+            return mapMatcher;
         }
         return null;
     }
 
     @Singleton
     @Provides
-    public static MapMatcherHandler provideMapMatcherHandler(@Nullable MapMatcher mapMatcher) {
+    public static MapMatcherHandler provideMapMatcherHandler(
+            Config config, Timer timer, @Nullable MapMatcher mapMatcher) {
         if (mapMatcher != null) {
-            return new MapMatcherHandler(mapMatcher);
+            return new MapMatcherHandler(mapMatcher, timer, config.getLong(Keys.MAP_MATCHER_TIMEOUT));
         }
         return null;
     }
@@ -349,6 +391,16 @@ public class MainModule extends AbstractModule {
         return null;
     }
 
+    @Singleton
+    @Provides
+    public static PositionSummaryHandler providePositionSummaryHandler(
+            Config config, PositionSummaryManager positionSummaryManager) {
+        if (config.getBoolean(Keys.REPORT_SUMMARY_ROLLUP)) {
+            return new PositionSummaryHandler(positionSummaryManager);
+        }
+        return null;
+    }
+
     @Singleton
     @Provides
     public static FilterHandler provideFilterHandler(
@@ -412,6 +464,7 @@ public class MainModule extends AbstractModule {
     public static VelocityEngine provideVelocityEngine(Config config) {
         Properties properties = new Properties();
         properties.setProperty("resource.loader.file.path", config.getString(Keys.TEMPLATES_ROOT) + "/");
+        properties.setProperty("resource.loader.file.cache", "true");
         properties.setProperty("web.url", WebHelper.retrieveWebUrl(config));
 
         VelocityEngine velocityEngine = new VelocityEngine();
@@ -24,6 +24,8 @@ import jakarta.inject.Singleton;
 import org.traccar.config.Config;
 import org.traccar.database.BufferingManager;
 import org.traccar.database.NotificationManager;
+import org.traccar.database.PositionBatchWriter;
+import org.traccar.database.StatisticsManager;
 import org.traccar.handler.BasePositionHandler;
 import org.traccar.handler.ComputedAttributesHandler;
 import org.traccar.handler.CopyAttributesHandler;
@@ -40,6 +42,7 @@ import org.traccar.handler.MapMatcherHandler;
 import org.traccar.handler.MotionHandler;
 import org.traccar.handler.OutdatedHandler;
 import org.traccar.handler.PositionForwardingHandler;
+import org.traccar.handler.PositionSummaryHandler;
 import org.traccar.handler.PostProcessHandler;
 import org.traccar.handler.SpeedLimitHandler;
 import org.traccar.handler.TimeHandler;
@@ -58,15 +61,13 @@ import org.traccar.handler.events.OverspeedEventHandler;
 import org.traccar.handler.events.ProximityEventHandler;
 import org.traccar.handler.network.AcknowledgementHandler;
 import org.traccar.helper.PositionLogger;
+import org.traccar.helper.SerialQueues;
 import org.traccar.model.Position;
 import org.traccar.session.cache.CacheManager;
 
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Queue;
 import java.util.stream.Stream;
 
 @Singleton
@@ -77,26 +78,27 @@ public class ProcessingHandler extends ChannelInboundHandlerAdapter implements B
     private final NotificationManager notificationManager;
     private final PositionLogger positionLogger;
     private final BufferingManager bufferingManager;
+    private final PositionBatchWriter batchWriter;
     private final List<BasePositionHandler> positionHandlers;
     private final List<BaseEventHandler> eventHandlers;
     private final PostProcessHandler postProcessHandler;
 
     private record QueuedPosition(ChannelHandlerContext ctx, Position position) {}
 
-    private final Map<Long, Queue<QueuedPosition>> queues = new HashMap<>();
-
-    private synchronized Queue<QueuedPosition> getQueue(long deviceId) {
-        return queues.computeIfAbsent(deviceId, k -> new LinkedList<>());
-    }
+    private final SerialQueues<QueuedPosition> queues = new SerialQueues<>();
 
     @Inject
     public ProcessingHandler(
             Injector injector, Config config,
-            CacheManager cacheManager, NotificationManager notificationManager, PositionLogger positionLogger) {
+            CacheManager cacheManager, NotificationManager notificationManager, PositionLogger positionLogger,
+            PositionBatchWriter batchWriter, StatisticsManager statisticsManager) {
         this.cacheManager = cacheManager;
         this.notificationManager = notificationManager;
         this.positionLogger = positionLogger;
-        bufferingManager = new BufferingManager(config, this);
+        this.batchWriter = batchWriter;
+        bufferingManager = new BufferingManager(config, statisticsManager, this);
+        statisticsManager.registerGauge("queuedPositions", queues::size);
+        statisticsManager.registerGauge("queuedDevices", queues::activeKeys);
 
         positionHandlers = Stream.of(
                 ComputedAttributesHandler.Early.class,
@@ -116,7 +118,8 @@ public class ProcessingHandler extends ChannelInboundHandlerAdapter implements B
                 CopyAttributesHandler.class,
                 EngineHoursHandler.class,
                 PositionForwardingHandler.class,
-                DatabaseHandler.class)
+                DatabaseHandler.class,
+                PositionSummaryHandler.class)
                 .map((clazz) -> (BasePositionHandler) injector.getInstance(clazz))
                 .filter(Objects::nonNull)
                 .toList();
@@ -144,6 +147,11 @@ public class ProcessingHandler extends ChannelInboundHandlerAdapter implements B
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
         if (msg instanceof Position position) {
+            var channel = ctx.channel();
+            if (batchWriter.isOverloaded() && channel.config().isAutoRead()) {
+                channel.config().setAutoRead(false);
+                batchWriter.whenAvailable(() -> channel.config().setAutoRead(true));
+            }
             cacheManager.addDevice(position.getDeviceId(), position);
             bufferingManager.accept(ctx, position);
         } else {
@@ -153,13 +161,7 @@ public class ProcessingHandler extends ChannelInboundHandlerAdapter implements B
 
     @Override
     public void onReleased(ChannelHandlerContext context, Position position) {
-        Queue<QueuedPosition> queue = getQueue(position.getDeviceId());
-        boolean queued;
-        synchronized (queue) {
-            queued = !queue.isEmpty();
-            queue.offer(new QueuedPosition(context, position));
-        }
-        if (!queued) {
+        if (queues.offer(position.getDeviceId(), new QueuedPosition(context, position))) {
             processPositionHandlers(context, position);
         }
     }
@@ -210,12 +212,7 @@ public class ProcessingHandler extends ChannelInboundHandlerAdapter implements B
     }
 
     private void processNextPosition(long deviceId) {
-        Queue<QueuedPosition> queue = getQueue(deviceId);
-        QueuedPosition next;
-        synchronized (queue) {
-            queue.poll(); // remove current position
-            next = queue.peek();
-        }
+        QueuedPosition next = queues.next(deviceId);
         if (next != null) {
             next.ctx().executor().execute(() -> processPositionHandlers(next.ctx(), next.position()));
         }
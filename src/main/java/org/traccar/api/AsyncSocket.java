@@ -32,10 +32,14 @@ import org.traccar.storage.Storage;
 import org.traccar.storage.StorageException;
 
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class AsyncSocket implements Session.Listener.AutoDemanding, ConnectionManager.UpdateListener {
 
@@ -50,15 +54,32 @@ public class AsyncSocket implements Session.Listener.AutoDemanding, ConnectionMa
     private final ConnectionManager connectionManager;
     private final Storage storage;
     private final long userId;
+    private final ScheduledExecutorService batchScheduler;
+    private final long batchInterval;
 
     private boolean includeLogs;
+    private volatile boolean batch;
     private Session session;
 
+    private Map<Long, Device> pendingDevices = new LinkedHashMap<>();
+    private Map<Long, Position> pendingPositions = new LinkedHashMap<>();
+    private List<Event> pendingEvents = new ArrayList<>();
+    private List<LogRecord> pendingLogs = new ArrayList<>();
+    private boolean flushScheduled;
+
     public AsyncSocket(ObjectMapper objectMapper, ConnectionManager connectionManager, Storage storage, long userId) {
+        this(objectMapper, connectionManager, storage, userId, null, 0);
+    }
+
+    public AsyncSocket(
+            ObjectMapper objectMapper, ConnectionManager connectionManager, Storage storage, long userId,
+            ScheduledExecutorService batchScheduler, long batchInterval) {
         this.objectMapper = objectMapper;
         this.connectionManager = connectionManager;
         this.storage = storage;
         this.userId = userId;
+        this.batchScheduler = batchScheduler;
+        this.batchInterval = batchInterval;
     }
 
     @Override
@@ -88,6 +109,9 @@ public class AsyncSocket implements Session.Listener.AutoDemanding, ConnectionMa
             if (json.hasNonNull("logs")) {
                 includeLogs = json.get("logs").asBoolean();
             }
+            if (json.hasNonNull("batch")) {
+                batch = json.get("batch").asBoolean() && batchScheduler != null;
+            }
         } catch (JsonProcessingException e) {
             LOGGER.warn("Socket JSON parsing error", e);
         }
@@ -107,23 +131,84 @@ public class AsyncSocket implements Session.Listener.AutoDemanding, ConnectionMa
 
     @Override
     public void onUpdateDevice(Device device) {
-        sendData(Map.of(KEY_DEVICES, List.of(device)));
+        if (batch) {
+            synchronized (this) {
+                pendingDevices.put(device.getId(), device);
+                scheduleFlush();
+            }
+        } else {
+            sendData(Map.of(KEY_DEVICES, List.of(device)));
+        }
     }
 
     @Override
     public void onUpdatePosition(Position position) {
-        sendData(Map.of(KEY_POSITIONS, List.of(position)));
+        if (batch) {
+            synchronized (this) {
+                pendingPositions.put(position.getDeviceId(), position);
+                scheduleFlush();
+            }
+        } else {
+            sendData(Map.of(KEY_POSITIONS, List.of(position)));
+        }
     }
 
     @Override
     public void onUpdateEvent(Event event) {
-        sendData(Map.of(KEY_EVENTS, List.of(event)));
+        if (batch) {
+            synchronized (this) {
+                pendingEvents.add(event);
+                scheduleFlush();
+            }
+        } else {
+            sendData(Map.of(KEY_EVENTS, List.of(event)));
+        }
     }
 
     @Override
     public void onUpdateLog(LogRecord record) {
         if (includeLogs) {
-            sendData(Map.of(KEY_LOGS, List.of(record)));
+            if (batch) {
+                synchronized (this) {
+                    pendingLogs.add(record);
+                    scheduleFlush();
+                }
+            } else {
+                sendData(Map.of(KEY_LOGS, List.of(record)));
+            }
+        }
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            batchScheduler.schedule(this::flush, batchInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        Map<String, Collection<?>> data = new HashMap<>();
+        synchronized (this) {
+            if (!pendingDevices.isEmpty()) {
+                data.put(KEY_DEVICES, pendingDevices.values());
+                pendingDevices = new LinkedHashMap<>();
+            }
+            if (!pendingPositions.isEmpty()) {
+                data.put(KEY_POSITIONS, pendingPositions.values());
+                pendingPositions = new LinkedHashMap<>();
+            }
+            if (!pendingEvents.isEmpty()) {
+                data.put(KEY_EVENTS, pendingEvents);
+                pendingEvents = new ArrayList<>();
+            }
+            if (!pendingLogs.isEmpty()) {
+                data.put(KEY_LOGS, pendingLogs);
+                pendingLogs = new ArrayList<>();
+            }
+            flushScheduled = false;
+        }
+        if (!data.isEmpty()) {
+            sendData(data);
         }
     }
 
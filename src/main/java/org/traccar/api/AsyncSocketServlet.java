@@ -34,6 +34,8 @@ import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 @Singleton
 public class AsyncSocketServlet extends JettyWebSocketServlet {
@@ -43,6 +45,8 @@ public class AsyncSocketServlet extends JettyWebSocketServlet {
     private final ConnectionManager connectionManager;
     private final Storage storage;
     private final LoginService loginService;
+    private final long batchInterval;
+    private final ScheduledExecutorService batchScheduler;
 
     @Inject
     public AsyncSocketServlet(
@@ -53,6 +57,16 @@ public class AsyncSocketServlet extends JettyWebSocketServlet {
         this.connectionManager = connectionManager;
         this.storage = storage;
         this.loginService = loginService;
+        batchInterval = config.getLong(Keys.WEB_UPDATE_BATCH_INTERVAL);
+        if (batchInterval > 0) {
+            batchScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "AsyncSocketBatch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            batchScheduler = null;
+        }
     }
 
     @Override
@@ -72,7 +86,8 @@ public class AsyncSocketServlet extends JettyWebSocketServlet {
                 userId = (Long) ((HttpSession) req.getSession()).getAttribute(SessionHelper.USER_ID_KEY);
             }
             if (userId != null) {
-                return new AsyncSocket(objectMapper, connectionManager, storage, userId);
+                return new AsyncSocket(
+                        objectMapper, connectionManager, storage, userId, batchScheduler, batchInterval);
             }
             return null;
         });
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015 - 2025 Anton Tananaev (anton@traccar.org)
+ * Copyright 2015 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,7 +23,6 @@ import org.traccar.api.signature.TokenManager;
 import org.traccar.database.OpenIdProvider;
 import org.traccar.helper.LogAction;
 import org.traccar.helper.SessionHelper;
-import org.traccar.model.RevokedToken;
 import org.traccar.model.User;
 import org.traccar.storage.StorageException;
 import org.traccar.storage.query.Columns;
@@ -161,9 +160,7 @@ public class SessionResource extends BaseResource {
     public Response revokeToken(
             @FormParam("token") String token) throws StorageException, GeneralSecurityException, IOException {
         TokenManager.TokenData data = tokenManager.decodeToken(token);
-        RevokedToken revokedToken = new RevokedToken();
-        revokedToken.setId(data.getId());
-        storage.addObject(revokedToken, new Request(new Columns.Include("id")));
+        tokenManager.revokeToken(data.getId());
         return Response.noContent().build();
     }
 
@@ -17,13 +17,18 @@ package org.traccar.api.security;
 
 import com.warrenstrange.googleauth.GoogleAuthenticator;
 import org.traccar.api.signature.TokenManager;
+import org.traccar.broadcast.BroadcastInterface;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.database.LdapProvider;
 import org.traccar.helper.DataConverter;
 import org.traccar.helper.model.UserUtil;
+import org.traccar.model.BaseModel;
+import org.traccar.model.ObjectOperation;
+import org.traccar.model.RevokedToken;
 import org.traccar.model.Server;
 import org.traccar.model.User;
+import org.traccar.session.cache.CacheManager;
 import org.traccar.storage.Storage;
 import org.traccar.storage.StorageException;
 import org.traccar.storage.query.Columns;
@@ -36,11 +41,16 @@ import jakarta.inject.Singleton;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 @Singleton
-public class LoginService {
+public class LoginService implements BroadcastInterface {
 
     private final Config config;
     private final Storage storage;
@@ -52,9 +62,16 @@ public class LoginService {
     private final boolean forceOpenId;
     private final boolean allowOpenIdRegistration;
 
+    private record CachedToken(long tokenId, User user, Date expiration, long cacheTime) {
+    }
+
+    private final long tokenCacheTimeout;
+    private final Map<String, CachedToken> tokenCache;
+
     @Inject
     public LoginService(
-            Config config, Storage storage, TokenManager tokenManager, @Nullable LdapProvider ldapProvider) {
+            Config config, Storage storage, CacheManager cacheManager, TokenManager tokenManager,
+            @Nullable LdapProvider ldapProvider) {
         this.storage = storage;
         this.config = config;
         this.tokenManager = tokenManager;
@@ -63,6 +80,33 @@ public class LoginService {
         forceLdap = config.getBoolean(Keys.LDAP_FORCE);
         forceOpenId = config.getBoolean(Keys.OPENID_FORCE);
         allowOpenIdRegistration = config.getBoolean(Keys.OPENID_ALLOW_REGISTRATION);
+        tokenCacheTimeout = TimeUnit.SECONDS.toMillis(config.getLong(Keys.WEB_TOKEN_CACHE_TIMEOUT));
+        int tokenCacheSize = config.getInteger(Keys.WEB_TOKEN_CACHE_SIZE);
+        if (tokenCacheSize > 0 && tokenCacheTimeout > 0) {
+            tokenCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry eldest) {
+                    return size() > tokenCacheSize;
+                }
+            });
+            cacheManager.addListener(this);
+        } else {
+            tokenCache = null;
+        }
+    }
+
+    @Override
+    public <T extends BaseModel> void invalidateObject(
+            boolean local, Class<T> clazz, long id, ObjectOperation operation) {
+        if (clazz.equals(User.class) && operation != ObjectOperation.ADD) {
+            synchronized (tokenCache) {
+                tokenCache.values().removeIf(cached -> cached.user().getId() == id);
+            }
+        } else if (clazz.equals(RevokedToken.class)) {
+            synchronized (tokenCache) {
+                tokenCache.values().removeIf(cached -> cached.tokenId() == id);
+            }
+        }
     }
 
     public LoginResult login(
@@ -83,11 +127,24 @@ public class LoginService {
         if (serviceAccountToken != null && serviceAccountToken.equals(token)) {
             return new LoginResult(new ServiceAccountUser());
         }
+        if (tokenCache != null) {
+            CachedToken cached = tokenCache.get(token);
+            long currentTime = System.currentTimeMillis();
+            if (cached != null && currentTime - cached.cacheTime() < tokenCacheTimeout
+                    && cached.expiration().getTime() > currentTime && !tokenManager.isRevoked(cached.tokenId())) {
+                checkUserEnabled(cached.user());
+                return new LoginResult(cached.user(), cached.expiration());
+            }
+        }
         TokenManager.TokenData tokenData = tokenManager.verifyToken(token);
         User user = storage.getObject(User.class, new Request(
                 new Columns.All(), new Condition.Equals("id", tokenData.getUserId())));
         if (user != null) {
             checkUserEnabled(user);
+            if (tokenCache != null) {
+                tokenCache.put(token, new CachedToken(
+                        tokenData.getId(), user, tokenData.getExpiration(), System.currentTimeMillis()));
+            }
         }
         return new LoginResult(user, tokenData.getExpiration());
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 - 2025 Anton Tananaev (anton@traccar.org)
+ * Copyright 2022 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,11 +18,14 @@ package org.traccar.api.signature;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.codec.binary.Base64;
+import org.traccar.broadcast.BroadcastInterface;
+import org.traccar.model.BaseModel;
+import org.traccar.model.ObjectOperation;
 import org.traccar.model.RevokedToken;
+import org.traccar.session.cache.CacheManager;
 import org.traccar.storage.Storage;
 import org.traccar.storage.StorageException;
 import org.traccar.storage.query.Columns;
-import org.traccar.storage.query.Condition;
 import org.traccar.storage.query.Request;
 
 import jakarta.inject.Inject;
@@ -31,19 +34,24 @@ import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 @Singleton
-public class TokenManager {
+public class TokenManager implements BroadcastInterface {
 
     private static final int DEFAULT_EXPIRATION_DAYS = 7;
 
     private final ObjectMapper objectMapper;
     private final CryptoManager cryptoManager;
     private final Storage storage;
+    private final CacheManager cacheManager;
 
     private final SecureRandom random = new SecureRandom();
 
+    private final Set<Long> revokedTokens = ConcurrentHashMap.newKeySet();
+
     public static class TokenData {
         @JsonProperty("i")
         private long id;
@@ -66,18 +74,41 @@ public class TokenManager {
     }
 
     @Inject
-    public TokenManager(ObjectMapper objectMapper, CryptoManager cryptoManager, Storage storage) {
+    public TokenManager(
+            ObjectMapper objectMapper, CryptoManager cryptoManager, Storage storage,
+            CacheManager cacheManager) throws StorageException {
         this.objectMapper = objectMapper;
         this.cryptoManager = cryptoManager;
         this.storage = storage;
+        this.cacheManager = cacheManager;
+        for (RevokedToken revokedToken : storage.getObjects(RevokedToken.class, new Request(new Columns.All()))) {
+            revokedTokens.add(revokedToken.getId());
+        }
+        cacheManager.addListener(this);
+    }
+
+    @Override
+    public <T extends BaseModel> void invalidateObject(
+            boolean local, Class<T> clazz, long id, ObjectOperation operation) {
+        if (clazz.equals(RevokedToken.class)) {
+            revokedTokens.add(id);
+        }
     }
 
     public String generateToken(long userId) throws IOException, GeneralSecurityException, StorageException {
         return generateToken(userId, null);
     }
 
+    public record SignedToken(long id, String token) {
+    }
+
     public String generateToken(
             long userId, Date expiration) throws IOException, GeneralSecurityException, StorageException {
+        return signToken(userId, expiration).token();
+    }
+
+    public SignedToken signToken(
+            long userId, Date expiration) throws IOException, GeneralSecurityException, StorageException {
         TokenData data = new TokenData();
         data.userId = userId;
         data.id = random.nextLong() & Long.MAX_VALUE;
@@ -87,7 +118,7 @@ public class TokenManager {
             data.expiration = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(DEFAULT_EXPIRATION_DAYS));
         }
         byte[] encoded = objectMapper.writeValueAsBytes(data);
-        return Base64.encodeBase64URLSafeString(cryptoManager.sign(encoded));
+        return new SignedToken(data.id, Base64.encodeBase64URLSafeString(cryptoManager.sign(encoded)));
     }
 
     public TokenData verifyToken(String token) throws IOException, GeneralSecurityException, StorageException {
@@ -95,14 +126,28 @@ public class TokenManager {
         if (data.expiration.before(new Date())) {
             throw new SecurityException("Token has expired");
         }
-        var revoked = storage.getObject(RevokedToken.class, new Request(
-                new Columns.All(), new Condition.Equals("id", data.getId())));
-        if (revoked != null) {
+        if (isRevoked(data.getId())) {
             throw new SecurityException("Token has been revoked");
         }
         return data;
     }
 
+    public boolean isRevoked(long id) {
+        return revokedTokens.contains(id);
+    }
+
+    public void revokeToken(long id) throws StorageException {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setId(id);
+        storage.addObject(revokedToken, new Request(new Columns.Include("id")));
+        revokedTokens.add(id);
+        try {
+            cacheManager.invalidateObject(true, RevokedToken.class, id, ObjectOperation.ADD);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public TokenData decodeToken(String token) throws IOException, GeneralSecurityException, StorageException {
         byte[] encoded = cryptoManager.verify(Base64.decodeBase64(token));
         return objectMapper.readValue(encoded, TokenData.class);
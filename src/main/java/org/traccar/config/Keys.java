@@ -645,6 +645,15 @@ public final class Keys {
             "database.saveEmpty",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Store position attributes in a compact binary encoding instead of JSON. Common attribute names are replaced
+     * with dictionary indexes and values are stored in tagged binary form, which makes both writing and reading
+     * cheaper. Existing JSON rows remain readable, so the option can be enabled on a populated database.
+     */
+    public static final ConfigKey<Boolean> DATABASE_COMPACT_ATTRIBUTES = new BooleanConfigKey(
+            "database.compactAttributes",
+            List.of(KeyType.CONFIG));
+
     /**
      * Maximum lifetime in milliseconds of a connection in the pool.
      */
@@ -672,6 +681,25 @@ public final class Keys {
             List.of(KeyType.CONFIG),
             100);
 
+    /**
+     * Number of threads writing position batches. Positions are assigned to a writer by device id, so positions
+     * of the same device are always inserted in order. More writers let a slow batch delay only a part of the
+     * devices.
+     */
+    public static final ConfigKey<Integer> DATABASE_POSITION_BATCH_WORKERS = new IntegerConfigKey(
+            "database.positionBatchWorkers",
+            List.of(KeyType.CONFIG),
+            1);
+
+    /**
+     * Maximum number of positions waiting to be written before the server stops reading from device connections.
+     * Reading resumes once the queue is drained to half of the limit. Zero disables the limit.
+     */
+    public static final ConfigKey<Integer> DATABASE_POSITION_BATCH_QUEUE_LIMIT = new IntegerConfigKey(
+            "database.positionBatchQueueLimit",
+            List.of(KeyType.CONFIG),
+            10000);
+
     /**
      * Device limit for self registered users. Default value is -1, which indicates no limit.
      */
@@ -962,6 +990,23 @@ public final class Keys {
             "web.serviceAccountToken",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Maximum number of verified API tokens kept in memory. Cached tokens skip signature verification and user
+     * lookup. Set to 0 to verify every request.
+     */
+    public static final ConfigKey<Integer> WEB_TOKEN_CACHE_SIZE = new IntegerConfigKey(
+            "web.tokenCacheSize",
+            List.of(KeyType.CONFIG),
+            10000);
+
+    /**
+     * Time in seconds a verified API token stays cached. Revoked tokens and user changes are applied immediately.
+     */
+    public static final ConfigKey<Long> WEB_TOKEN_CACHE_TIMEOUT = new LongConfigKey(
+            "web.tokenCacheTimeout",
+            List.of(KeyType.CONFIG),
+            60L);
+
     /**
      * Cross-origin resource sharing origin header value.
      */
@@ -1517,6 +1562,32 @@ public final class Keys {
             List.of(KeyType.CONFIG),
             86400L);
 
+    /**
+     * Number of devices processed concurrently when a report covers multiple devices. The value is capped by half of
+     * 'database.maxPoolSize', because each device runs its own queries. Set to 1 to process devices sequentially.
+     */
+    public static final ConfigKey<Integer> REPORT_PARALLELISM = new IntegerConfigKey(
+            "report.parallelism",
+            List.of(KeyType.CONFIG),
+            4);
+
+    /**
+     * Maintain hourly position summaries per device and use them for summary reports. Only edges of the report period
+     * that don't align to whole hours are calculated from raw positions.
+     */
+    public static final ConfigKey<Boolean> REPORT_SUMMARY_ROLLUP = new BooleanConfigKey(
+            "report.summary.rollup",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * How far back position summaries are backfilled after the rollup is enabled. The value is in seconds. Thirty days
+     * by default.
+     */
+    public static final ConfigKey<Long> REPORT_SUMMARY_BACKFILL = new LongConfigKey(
+            "report.summary.backfill",
+            List.of(KeyType.CONFIG),
+            2592000L);
+
     /**
      * Enable new trips calculation logic.
      */
@@ -1525,6 +1596,14 @@ public final class Keys {
             List.of(KeyType.CONFIG),
             true);
 
+    /**
+     * Store trips and stops as they are detected from incoming positions and use them in trips and stops reports.
+     * Stored segments are ignored when trip configuration changes, and the report falls back to processing positions.
+     */
+    public static final ConfigKey<Boolean> REPORT_TRIP_STORE = new BooleanConfigKey(
+            "report.trip.store",
+            List.of(KeyType.CONFIG));
+
     /**
      * Distances above the minimum are considered trips.
      */
@@ -1905,6 +1984,23 @@ public final class Keys {
             "geocoder.cacheSize",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Geohash precision for geocoding cache keys in characters, from 1 to 12. Positions within the same geohash cell
+     * share the cached address. For example, 8 characters is a cell of about 38 by 19 meters and 9 characters is
+     * about 5 by 5 meters. Default value is 9.
+     */
+    public static final ConfigKey<Integer> GEOCODER_CACHE_PRECISION = new IntegerConfigKey(
+            "geocoder.cachePrecision",
+            List.of(KeyType.CONFIG),
+            9);
+
+    /**
+     * Path to a file to persist geocoding cache across restarts. If not set, the cache is kept in memory only.
+     */
+    public static final ConfigKey<String> GEOCODER_CACHE_FILE = new StringConfigKey(
+            "geocoder.cacheFile",
+            List.of(KeyType.CONFIG));
+
     /**
      * Disable automatic reverse geocoding requests for all positions.
      */
@@ -1959,6 +2055,48 @@ public final class Keys {
             "mapMatcher.key",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Map matcher batch service URL. The service receives a POST request with a JSON array of points with "lat" and
+     * "lon" fields and returns an array of matched points in the same order. If not set, points collected in a batch
+     * are requested one by one.
+     */
+    public static final ConfigKey<String> MAP_MATCHER_BATCH_URL = new StringConfigKey(
+            "mapMatcher.batchUrl",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Time window in milliseconds to collect points for a single batch request. Default value is 0, which sends each
+     * point immediately.
+     */
+    public static final ConfigKey<Long> MAP_MATCHER_BATCH_WINDOW = new LongConfigKey(
+            "mapMatcher.batchWindow",
+            List.of(KeyType.CONFIG),
+            0L);
+
+    /**
+     * Cache size for matched points. Positions within the same grid cell share the matched point. Disabled by default.
+     */
+    public static final ConfigKey<Integer> MAP_MATCHER_CACHE_SIZE = new IntegerConfigKey(
+            "mapMatcher.cacheSize",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Grid cell size for the map matcher cache in meters. Default value is 5.
+     */
+    public static final ConfigKey<Double> MAP_MATCHER_CACHE_GRID = new DoubleConfigKey(
+            "mapMatcher.cacheGrid",
+            List.of(KeyType.CONFIG),
+            5.0);
+
+    /**
+     * Maximum time in milliseconds to wait for the map matcher. After that the position is processed with original
+     * coordinates. Default value is 0, which means no limit.
+     */
+    public static final ConfigKey<Long> MAP_MATCHER_TIMEOUT = new LongConfigKey(
+            "mapMatcher.timeout",
+            List.of(KeyType.CONFIG),
+            0L);
+
     /**
      * Boolean flag to enable LBS location resolution. Some devices send cell tower information and Wi-Fi points when
      * GPS location is not available. Traccar can determine coordinates based on that information using third-party
@@ -2055,6 +2193,31 @@ public final class Keys {
             List.of(KeyType.CONFIG),
             100);
 
+    /**
+     * Cache size for speed limit results. Set to 0 to request speed limit for every position. Default value is 10000.
+     */
+    public static final ConfigKey<Integer> SPEED_LIMIT_CACHE_SIZE = new IntegerConfigKey(
+            "speedLimit.cacheSize",
+            List.of(KeyType.CONFIG),
+            10000);
+
+    /**
+     * Grid cell size for speed limit cache. Positions within the same cell share the cached result. Value is in
+     * meters. Default value is 50.
+     */
+    public static final ConfigKey<Double> SPEED_LIMIT_CACHE_GRID = new DoubleConfigKey(
+            "speedLimit.cacheGrid",
+            List.of(KeyType.CONFIG),
+            50.0);
+
+    /**
+     * Time to keep speed limit results in the cache. Value is in seconds. Default value is one day.
+     */
+    public static final ConfigKey<Long> SPEED_LIMIT_CACHE_TIMEOUT = new LongConfigKey(
+            "speedLimit.cacheTimeout",
+            List.of(KeyType.CONFIG),
+            86400L);
+
     /**
      * Override latitude sign / hemisphere. Useful in cases where value is incorrect because of device bug. Value can be
      * N for North or S for South.
@@ -2135,6 +2298,26 @@ public final class Keys {
             "web.showUnknownDevices",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Maximum number of events and logs waiting to be delivered to a single live update connection. When a client
+     * can't keep up, the oldest entries are dropped. Device and position updates are always reduced to the latest
+     * value per device.
+     */
+    public static final ConfigKey<Integer> WEB_UPDATE_QUEUE_LIMIT = new IntegerConfigKey(
+            "web.updateQueueLimit",
+            List.of(KeyType.CONFIG),
+            1000);
+
+    /**
+     * Live update batching window in milliseconds. If set, a WebSocket client can send {"batch": true} to receive
+     * devices, positions and events collected over the window in a single frame, with only the latest position
+     * for each device.
+     */
+    public static final ConfigKey<Long> WEB_UPDATE_BATCH_INTERVAL = new LongConfigKey(
+            "web.updateBatchInterval",
+            List.of(KeyType.CONFIG),
+            0L);
+
     /**
      * Enable commands for a shared device.
      */
@@ -16,25 +16,36 @@
 package org.traccar.database;
 
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.util.HashedWheelTimer;
-import io.netty.util.Timeout;
-import io.netty.util.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.model.Position;
 
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds positions for a configured time to restore their order. Each device has its own sorted window and a
+ * single sweeper releases positions from the head of each window once their deadline has passed. A position
+ * can't leave before the ones sorted ahead of it, so a late position delays the rest of the window in the
+ * same way as rescheduling all following positions would.
+ */
 public class BufferingManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BufferingManager.class);
 
+    private static final long MIN_SWEEP_INTERVAL = 10;
+
     public interface Callback {
         void onReleased(ChannelHandlerContext context, Position position);
     }
@@ -43,11 +54,16 @@ public class BufferingManager {
 
         private final ChannelHandlerContext context;
         private final Position position;
-        private Timeout timeout;
+        private final long sequence;
+        private final long arrival;
+        private final long deadline;
 
-        private Holder(ChannelHandlerContext context, Position position) {
+        private Holder(ChannelHandlerContext context, Position position, long sequence, long arrival, long deadline) {
             this.context = context;
             this.position = position;
+            this.sequence = sequence;
+            this.arrival = arrival;
+            this.deadline = deadline;
         }
 
         private int compareTime(Date left, Date right) {
@@ -69,51 +85,96 @@ public class BufferingManager {
                 return deviceTimeResult;
             }
 
-            return position.getServerTime().compareTo(other.position.getServerTime());
+            int serverTimeResult = position.getServerTime().compareTo(other.position.getServerTime());
+            if (serverTimeResult != 0) {
+                return serverTimeResult;
+            }
+
+            return Long.compare(sequence, other.sequence);
         }
     }
 
-    private final Timer timer = new HashedWheelTimer();
+    private static final class Window {
+        private final TreeSet<Holder> holders = new TreeSet<>();
+        private boolean closed;
+    }
+
     private final Callback callback;
     private final long threshold;
 
-    private final Map<Long, TreeSet<Holder>> buffer = new HashMap<>();
+    private final Map<Long, Window> buffer = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger bufferedCount = new AtomicInteger();
+    private final LongAdder releasedCount = new LongAdder();
+    private final LongAdder releaseLatency = new LongAdder();
 
-    public BufferingManager(Config config, Callback callback) {
+    public BufferingManager(Config config, StatisticsManager statisticsManager, Callback callback) {
         this.callback = callback;
         threshold = config.getLong(Keys.SERVER_BUFFERING_THRESHOLD);
+        if (threshold > 0) {
+            statisticsManager.registerGauge("bufferedPositions", bufferedCount::get);
+            statisticsManager.registerGauge("bufferReleaseLatency", this::drainReleaseLatency);
+            long interval = Math.max(threshold / 10, MIN_SWEEP_INTERVAL);
+            var scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "BufferingManager");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+        }
     }
 
-    private Timeout scheduleTimeout(Holder holder) {
-        return timer.newTimeout(
-                timeout -> {
-                    LOGGER.debug("released {}", holder.position.getFixTime());
-                    synchronized (buffer) {
-                        buffer.get(holder.position.getDeviceId()).remove(holder);
-                    }
-                    holder.context.executor().execute(() -> {
-                        callback.onReleased(holder.context, holder.position);
-                    });
-                },
-                threshold, TimeUnit.MILLISECONDS);
+    /**
+     * Average time in milliseconds between receiving and releasing a position since the previous call.
+     */
+    private long drainReleaseLatency() {
+        long count = releasedCount.sumThenReset();
+        long latency = releaseLatency.sumThenReset();
+        return count > 0 ? latency / count : 0;
     }
 
     public void accept(ChannelHandlerContext context, Position position) {
         if (threshold > 0) {
-            synchronized (buffer) {
-                LOGGER.debug("queued {}", position.getFixTime());
-                var queue = buffer.computeIfAbsent(position.getDeviceId(), k -> new TreeSet<>());
-                Holder holder = new Holder(context, position);
-                holder.timeout = scheduleTimeout(holder);
-                queue.add(holder);
-                queue.tailSet(holder, false).forEach(h -> {
-                    h.timeout.cancel();
-                    h.timeout = scheduleTimeout(h);
-                });
+            LOGGER.debug("queued {}", position.getFixTime());
+            long now = System.currentTimeMillis();
+            Holder holder = new Holder(context, position, sequence.incrementAndGet(), now, now + threshold);
+            while (true) {
+                Window window = buffer.computeIfAbsent(position.getDeviceId(), k -> new Window());
+                synchronized (window) {
+                    if (!window.closed) {
+                        window.holders.add(holder);
+                        bufferedCount.incrementAndGet();
+                        return;
+                    }
+                }
             }
         } else {
             callback.onReleased(context, position);
         }
     }
 
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        List<Holder> released = new ArrayList<>();
+        buffer.forEach((deviceId, window) -> {
+            synchronized (window) {
+                while (!window.holders.isEmpty() && window.holders.first().deadline <= now) {
+                    released.add(window.holders.pollFirst());
+                }
+                if (window.holders.isEmpty()) {
+                    window.closed = true;
+                    buffer.remove(deviceId, window);
+                }
+            }
+        });
+        for (Holder holder : released) {
+            LOGGER.debug("released {}", holder.position.getFixTime());
+            bufferedCount.decrementAndGet();
+            releasedCount.increment();
+            releaseLatency.add(now - holder.arrival);
+            holder.context.executor().execute(() -> callback.onReleased(holder.context, holder.position));
+        }
+    }
+
 }
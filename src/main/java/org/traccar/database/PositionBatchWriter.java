@@ -27,11 +27,13 @@ import org.traccar.storage.query.Request;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 @Singleton
 public class PositionBatchWriter {
@@ -41,59 +43,155 @@ public class PositionBatchWriter {
     private record Entry(Position position, CompletableFuture<Long> future) {}
 
     private final Storage storage;
-    private final ConcurrentLinkedQueue<Entry> queue;
     private final int batchSize;
+    private final long interval;
+    private final int queueLimit;
+    private final Shard[] shards;
+
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final Queue<Runnable> resumeActions = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushedPositions = new LongAdder();
+    private final LongAdder flushTimeCount = new LongAdder();
+    private final LongAdder flushTime = new LongAdder();
+
+    private final class Shard implements Runnable {
+
+        private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final Semaphore signal = new Semaphore(0);
+
+        private void offer(Entry entry) {
+            queue.offer(entry);
+            if (size.incrementAndGet() == batchSize) {
+                signal.release();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    signal.tryAcquire(interval, TimeUnit.MILLISECONDS);
+                    signal.drainPermits();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                int flushed;
+                do {
+                    flushed = flush();
+                } while (flushed == batchSize);
+            }
+        }
+
+        private int flush() {
+            List<Entry> batch = new ArrayList<>(batchSize);
+            Entry entry;
+            while (batch.size() < batchSize && (entry = queue.poll()) != null) {
+                batch.add(entry);
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            size.addAndGet(-batch.size());
+            long start = System.nanoTime();
+            try {
+                List<Position> positions = batch.stream().map(Entry::position).toList();
+                List<Long> ids = storage.addObjects(positions, INSERT_REQUEST);
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).future().complete(ids.get(i));
+                }
+            } catch (Exception error) {
+                batch.forEach(e -> e.future().completeExceptionally(error));
+            }
+            flushCount.increment();
+            flushedPositions.add(batch.size());
+            flushTimeCount.increment();
+            flushTime.add(System.nanoTime() - start);
+            if (queueSize.addAndGet(-batch.size()) <= queueLimit / 2) {
+                resume();
+            }
+            return batch.size();
+        }
+
+    }
 
     @Inject
-    public PositionBatchWriter(Config config, Storage storage) {
+    public PositionBatchWriter(Config config, Storage storage, StatisticsManager statisticsManager) {
         this.storage = storage;
         this.batchSize = config.getInteger(Keys.DATABASE_POSITION_BATCH_SIZE);
-        long interval = config.getLong(Keys.DATABASE_POSITION_BATCH_INTERVAL);
+        this.interval = config.getLong(Keys.DATABASE_POSITION_BATCH_INTERVAL);
+        this.queueLimit = config.getInteger(Keys.DATABASE_POSITION_BATCH_QUEUE_LIMIT);
         if (interval > 0) {
-            queue = new ConcurrentLinkedQueue<>();
-            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
-                Thread thread = new Thread(runnable, "PositionBatchWriter");
+            statisticsManager.registerGauge("positionWriteQueue", queueSize::get);
+            statisticsManager.registerGauge("positionBatchSize", this::drainBatchSize);
+            statisticsManager.registerGauge("positionBatchFlushTime", this::drainFlushTime);
+            shards = new Shard[Math.max(config.getInteger(Keys.DATABASE_POSITION_BATCH_WORKERS), 1)];
+            for (int i = 0; i < shards.length; i++) {
+                shards[i] = new Shard();
+                Thread thread = new Thread(shards[i], "PositionBatchWriter-" + i);
                 thread.setDaemon(true);
-                return thread;
-            });
-            scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+                thread.start();
+            }
         } else {
-            queue = null;
+            shards = null;
         }
     }
 
     public CompletableFuture<Long> submit(Position position) {
         CompletableFuture<Long> future = new CompletableFuture<>();
-        if (queue == null) {
+        if (shards == null) {
             try {
                 future.complete(storage.addObject(position, INSERT_REQUEST));
             } catch (StorageException error) {
                 future.completeExceptionally(error);
             }
         } else {
-            queue.offer(new Entry(position, future));
+            queueSize.incrementAndGet();
+            shards[Math.floorMod(position.getDeviceId(), shards.length)].offer(new Entry(position, future));
         }
         return future;
     }
 
-    private void flush() {
-        List<Entry> batch = new ArrayList<>(batchSize);
-        Entry entry;
-        while (batch.size() < batchSize && (entry = queue.poll()) != null) {
-            batch.add(entry);
-        }
-        if (batch.isEmpty()) {
-            return;
+    /**
+     * Returns true when the number of waiting positions has reached the configured limit and callers should
+     * stop accepting new data until notified through {@link #whenAvailable(Runnable)}.
+     */
+    public boolean isOverloaded() {
+        return shards != null && queueLimit > 0 && queueSize.get() >= queueLimit;
+    }
+
+    public void whenAvailable(Runnable action) {
+        resumeActions.offer(action);
+        if (!isOverloaded()) {
+            resume();
         }
-        try {
-            List<Position> positions = batch.stream().map(Entry::position).toList();
-            List<Long> ids = storage.addObjects(positions, INSERT_REQUEST);
-            for (int i = 0; i < batch.size(); i++) {
-                batch.get(i).future().complete(ids.get(i));
-            }
-        } catch (Exception error) {
-            batch.forEach(e -> e.future().completeExceptionally(error));
+    }
+
+    private void resume() {
+        Runnable action;
+        while ((action = resumeActions.poll()) != null) {
+            action.run();
         }
     }
 
+    /**
+     * Average number of positions per batch since the previous call.
+     */
+    private long drainBatchSize() {
+        long count = flushCount.sumThenReset();
+        long positions = flushedPositions.sumThenReset();
+        return count > 0 ? positions / count : 0;
+    }
+
+    /**
+     * Average time in milliseconds spent writing a single batch since the previous call.
+     */
+    private long drainFlushTime() {
+        long count = flushTimeCount.sumThenReset();
+        long time = flushTime.sumThenReset();
+        return count > 0 ? time / count / 1_000_000 : 0;
+    }
+
 }
@@ -0,0 +1,399 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.database;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.broadcast.BroadcastInterface;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.helper.model.PositionUtil;
+import org.traccar.model.BaseModel;
+import org.traccar.model.Device;
+import org.traccar.model.ObjectOperation;
+import org.traccar.model.Position;
+import org.traccar.model.PositionSummary;
+import org.traccar.session.cache.CacheManager;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Order;
+import org.traccar.storage.query.Request;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maintains hourly per-device position summaries. Positions coming through the pipeline are accumulated in memory
+ * and written when the hour is over; anything the pipeline could not account for (hours before startup, positions
+ * arriving out of order, devices handled by other instances) is recalculated from stored positions. Hours without
+ * positions are stored as empty rows, merged into a single row when consecutive, so a report can tell an empty hour
+ * from one that is not summarised yet.
+ * <p>
+ * Rows are replaced without a transaction, so two instances writing the same range at once (for example a flush on
+ * a secondary instance and the backfill on the primary) can leave overlapping rows. The next write of the range
+ * removes them, and {@link #getSummaries} resolves them in the meantime.
+ */
+@Singleton
+public class PositionSummaryManager implements BroadcastInterface {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PositionSummaryManager.class);
+
+    public static final long PERIOD = TimeUnit.HOURS.toMillis(1);
+
+    private static final long IDLE_PERIOD = TimeUnit.DAYS.toMillis(1);
+
+    private static final class Bucket {
+
+        private final long periodStart;
+        private final boolean complete;
+        private long firstPositionId;
+        private long firstTime = Long.MAX_VALUE;
+        private long lastPositionId;
+        private long lastTime = Long.MIN_VALUE;
+        private double maxSpeed;
+
+        private Bucket(long periodStart, boolean complete) {
+            this.periodStart = periodStart;
+            this.complete = complete;
+        }
+
+        private void add(long positionId, long time, double speed) {
+            if (time < firstTime) {
+                firstTime = time;
+                firstPositionId = positionId;
+            }
+            if (time >= lastTime) {
+                lastTime = time;
+                lastPositionId = positionId;
+            }
+            maxSpeed = Math.max(maxSpeed, speed);
+        }
+
+        private PositionSummary toSummary(long deviceId) {
+            PositionSummary summary = createSummary(deviceId, periodStart, periodStart + PERIOD);
+            summary.setFirstPositionId(firstPositionId);
+            summary.setLastPositionId(lastPositionId);
+            summary.setMaxSpeed(maxSpeed);
+            return summary;
+        }
+
+    }
+
+    private record ClosedBucket(long deviceId, Bucket bucket, long nextPeriodStart) {
+    }
+
+    private record DirtyPeriod(long deviceId, long periodStart) {
+    }
+
+    private final Storage storage;
+    private final long backfillPeriod;
+    private final long startPeriod = getPeriodStart(System.currentTimeMillis());
+
+    private final Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Queue<ClosedBucket> closedBuckets = new ConcurrentLinkedQueue<>();
+    private final Set<DirtyPeriod> dirtyPeriods = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> verified = new ConcurrentHashMap<>();
+
+    @Inject
+    public PositionSummaryManager(Config config, Storage storage, CacheManager cacheManager) {
+        this.storage = storage;
+        backfillPeriod = config.getLong(Keys.REPORT_SUMMARY_BACKFILL) * 1000;
+        cacheManager.addListener(this);
+    }
+
+    @Override
+    public <T extends BaseModel> void invalidateObject(
+            boolean local, Class<T> clazz, long id, ObjectOperation operation) {
+        if (clazz.equals(Device.class) && operation == ObjectOperation.DELETE) {
+            buckets.remove(id);
+            closedBuckets.removeIf(closed -> closed.deviceId() == id);
+            dirtyPeriods.removeIf(dirty -> dirty.deviceId() == id);
+            verified.remove(id);
+        }
+    }
+
+    public static long getPeriodStart(long time) {
+        return Math.floorDiv(time, PERIOD) * PERIOD;
+    }
+
+    private static PositionSummary createSummary(long deviceId, long periodStart, long periodEnd) {
+        PositionSummary summary = new PositionSummary();
+        summary.setDeviceId(deviceId);
+        summary.setPeriodStart(new Date(periodStart));
+        summary.setPeriodEnd(new Date(periodEnd));
+        return summary;
+    }
+
+    /**
+     * Summarise positions ordered by fix time into rows covering the whole [from, to) range. Both ends have to be
+     * aligned to the summary period.
+     */
+    public static List<PositionSummary> summarize(long deviceId, long from, long to, Iterator<Position> positions) {
+        List<PositionSummary> result = new ArrayList<>();
+        long cursor = from;
+        Bucket bucket = null;
+        while (positions.hasNext()) {
+            Position position = positions.next();
+            long time = position.getFixTime().getTime();
+            if (time < from || time >= to) {
+                continue;
+            }
+            long periodStart = getPeriodStart(time);
+            if (bucket == null || bucket.periodStart != periodStart) {
+                if (bucket != null) {
+                    result.add(bucket.toSummary(deviceId));
+                    cursor = bucket.periodStart + PERIOD;
+                }
+                if (periodStart > cursor) {
+                    result.add(createSummary(deviceId, cursor, periodStart));
+                }
+                bucket = new Bucket(periodStart, true);
+            }
+            bucket.add(position.getId(), time, position.getSpeed());
+        }
+        if (bucket != null) {
+            result.add(bucket.toSummary(deviceId));
+            cursor = bucket.periodStart + PERIOD;
+        }
+        if (to > cursor) {
+            result.add(createSummary(deviceId, cursor, to));
+        }
+        return result;
+    }
+
+    private static Condition overlapping(long deviceId, long from, long to) {
+        return new Condition.And(
+                new Condition.Equals("deviceId", deviceId),
+                new Condition.And(
+                        new Condition.Compare("periodEnd", ">", new Date(from)),
+                        new Condition.Compare("periodStart", "<", new Date(to))));
+    }
+
+    /**
+     * Resolve overlapping rows left by concurrent writers. Rows with positions win over empty rows and duplicates of
+     * the same hour are dropped, so the result is ordered and has no overlaps.
+     */
+    static List<PositionSummary> resolveOverlaps(long deviceId, List<PositionSummary> rows) {
+        NavigableMap<Long, PositionSummary> summaries = new TreeMap<>();
+        List<PositionSummary> empty = new ArrayList<>();
+        for (PositionSummary row : rows) {
+            if (row.hasPositions()) {
+                summaries.putIfAbsent(row.getPeriodStart().getTime(), row);
+            } else {
+                empty.add(row);
+            }
+        }
+        List<PositionSummary> result = new ArrayList<>(summaries.values());
+        empty.sort(Comparator.comparing(PositionSummary::getPeriodStart));
+        long cursor = Long.MIN_VALUE;
+        for (PositionSummary row : empty) {
+            long start = Math.max(cursor, row.getPeriodStart().getTime());
+            long end = row.getPeriodEnd().getTime();
+            if (start >= end) {
+                continue;
+            }
+            for (PositionSummary summary : summaries.subMap(start, true, end, false).values()) {
+                long summaryStart = summary.getPeriodStart().getTime();
+                if (summaryStart > start) {
+                    result.add(createSummary(deviceId, start, summaryStart));
+                }
+                start = Math.max(start, summary.getPeriodEnd().getTime());
+            }
+            if (end > start) {
+                result.add(start == row.getPeriodStart().getTime() ? row : createSummary(deviceId, start, end));
+            }
+            cursor = Math.max(cursor, end);
+        }
+        result.sort(Comparator.comparing(PositionSummary::getPeriodStart));
+        return result;
+    }
+
+    public List<PositionSummary> getSummaries(long deviceId, Date from, Date to) throws StorageException {
+        return resolveOverlaps(deviceId, storage.getObjects(PositionSummary.class, new Request(
+                new Columns.All(), overlapping(deviceId, from.getTime(), to.getTime()), new Order("periodStart"))));
+    }
+
+    private void replace(long deviceId, long from, long to, List<PositionSummary> summaries) throws StorageException {
+        Condition condition = overlapping(deviceId, from, to);
+        List<PositionSummary> result = new ArrayList<>();
+        for (PositionSummary existing : storage.getObjects(
+                PositionSummary.class, new Request(new Columns.All(), condition))) {
+            if (!existing.hasPositions()) {
+                long existingStart = existing.getPeriodStart().getTime();
+                long existingEnd = existing.getPeriodEnd().getTime();
+                if (existingStart < from) {
+                    result.add(createSummary(deviceId, existingStart, from));
+                }
+                if (existingEnd > to) {
+                    result.add(createSummary(deviceId, to, existingEnd));
+                }
+            }
+        }
+        result.addAll(summaries);
+        storage.removeObject(PositionSummary.class, new Request(condition));
+        storage.addObjects(result, new Request(new Columns.Exclude("id")));
+    }
+
+    private void rebuild(long deviceId, long from, long to) throws StorageException {
+        List<PositionSummary> summaries;
+        try (var positions = PositionUtil.getPositionsStream(storage, deviceId, new Date(from), new Date(to))) {
+            summaries = summarize(deviceId, from, to, positions.iterator());
+        }
+        replace(deviceId, from, to, summaries);
+    }
+
+    public void update(Position position) {
+        if (position.getId() == 0 || position.getFixTime() == null) {
+            return;
+        }
+        long time = position.getFixTime().getTime();
+        long periodStart = getPeriodStart(time);
+        buckets.compute(position.getDeviceId(), (deviceId, current) -> {
+            Bucket bucket = current;
+            if (bucket == null) {
+                bucket = new Bucket(periodStart, false);
+            } else if (periodStart > bucket.periodStart) {
+                closedBuckets.add(new ClosedBucket(deviceId, bucket, periodStart));
+                bucket = new Bucket(periodStart, true);
+            } else if (periodStart < bucket.periodStart) {
+                dirtyPeriods.add(new DirtyPeriod(deviceId, periodStart));
+                return bucket;
+            }
+            bucket.add(position.getId(), time, position.getSpeed());
+            return bucket;
+        });
+    }
+
+    /**
+     * Write summaries collected by the pipeline and recalculate hours that received positions out of order. Buckets
+     * of devices that went silent are closed once their hour is settled and replaced with an empty bucket, which is
+     * only written as a single empty row when the device reports again. Empty buckets idle for more than a day are
+     * dropped and their hours are left to the backfill.
+     */
+    public void flush() {
+        long settled = getPeriodStart(System.currentTimeMillis()) - PERIOD;
+        for (long deviceId : buckets.keySet()) {
+            buckets.computeIfPresent(deviceId, (key, bucket) -> {
+                if (bucket.periodStart < settled && bucket.firstPositionId != 0) {
+                    closedBuckets.add(new ClosedBucket(deviceId, bucket, settled));
+                    return new Bucket(settled, true);
+                } else if (bucket.periodStart < settled - IDLE_PERIOD && bucket.firstPositionId == 0) {
+                    return null;
+                }
+                return bucket;
+            });
+        }
+
+        ClosedBucket closed;
+        while ((closed = closedBuckets.poll()) != null) {
+            long deviceId = closed.deviceId();
+            Bucket bucket = closed.bucket();
+            try {
+                if (bucket.complete) {
+                    List<PositionSummary> summaries = new ArrayList<>();
+                    long periodEnd = bucket.periodStart + PERIOD;
+                    if (bucket.firstPositionId != 0) {
+                        summaries.add(bucket.toSummary(deviceId));
+                    } else {
+                        periodEnd = bucket.periodStart;
+                    }
+                    if (closed.nextPeriodStart() > periodEnd) {
+                        summaries.add(createSummary(deviceId, periodEnd, closed.nextPeriodStart()));
+                    }
+                    replace(deviceId, bucket.periodStart, closed.nextPeriodStart(), summaries);
+                } else {
+                    rebuild(deviceId, bucket.periodStart, closed.nextPeriodStart());
+                }
+            } catch (StorageException e) {
+                LOGGER.warn("Failed to store position summary", e);
+                verified.remove(deviceId);
+            }
+        }
+
+        for (DirtyPeriod dirty : dirtyPeriods) {
+            dirtyPeriods.remove(dirty);
+            try {
+                rebuild(dirty.deviceId(), dirty.periodStart(), dirty.periodStart() + PERIOD);
+            } catch (StorageException e) {
+                LOGGER.warn("Failed to update position summary", e);
+                verified.remove(dirty.deviceId());
+            }
+        }
+    }
+
+    private long getBackfillStart(long deviceId, long settled) throws StorageException {
+        long from = getPeriodStart(settled - backfillPeriod);
+        PositionSummary last = storage.getObject(PositionSummary.class, new Request(
+                new Columns.All(),
+                new Condition.And(
+                        new Condition.Equals("deviceId", deviceId),
+                        new Condition.Compare("periodStart", "<", new Date(startPeriod))),
+                new Order("periodStart", true, 1)));
+        if (last != null) {
+            from = Math.max(from, Math.min(last.getPeriodEnd().getTime(), startPeriod));
+        }
+        return from;
+    }
+
+    /**
+     * Fill hours that have no summary yet. The first run continues from the last row stored before this process
+     * started, or from the configured backfill period if there is none, and later runs from the last verified hour.
+     */
+    public void backfill(long deviceId) throws StorageException {
+        long settled = getPeriodStart(System.currentTimeMillis()) - PERIOD;
+        long to = settled;
+        Bucket bucket = buckets.get(deviceId);
+        if (bucket != null) {
+            to = Math.min(to, bucket.periodStart);
+        }
+        Long from = verified.get(deviceId);
+        if (from == null) {
+            from = getBackfillStart(deviceId, settled);
+        }
+        if (from >= to) {
+            return;
+        }
+
+        long cursor = from;
+        for (PositionSummary summary : getSummaries(deviceId, new Date(from), new Date(to))) {
+            long periodStart = summary.getPeriodStart().getTime();
+            if (periodStart > cursor) {
+                rebuild(deviceId, cursor, periodStart);
+            }
+            cursor = Math.max(cursor, summary.getPeriodEnd().getTime());
+        }
+        if (cursor < to) {
+            rebuild(deviceId, cursor, to);
+        }
+        verified.put(deviceId, to);
+    }
+
+}
@@ -34,39 +34,43 @@ import jakarta.inject.Singleton;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.core.Form;
-import java.util.Calendar;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
 @Singleton
 public class StatisticsManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsManager.class);
 
-    private static final int SPLIT_MODE = Calendar.DAY_OF_MONTH;
-
     private final Config config;
     private final Storage storage;
     private final Client client;
     private final ObjectMapper objectMapper;
 
-    private final AtomicInteger lastUpdate = new AtomicInteger(Calendar.getInstance().get(SPLIT_MODE));
+    private final AtomicLong nextSplit = new AtomicLong(getNextSplit(System.currentTimeMillis()));
+
+    private final Set<Long> users = ConcurrentHashMap.newKeySet();
+    private final Map<Long, String> deviceProtocols = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> deviceMessages = new ConcurrentHashMap<>();
 
-    private final Set<Long> users = new HashSet<>();
-    private final Map<Long, String> deviceProtocols = new HashMap<>();
-    private final Map<Long, Integer> deviceMessages = new HashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder messagesReceived = new LongAdder();
+    private final LongAdder messagesStored = new LongAdder();
+    private final LongAdder mailSent = new LongAdder();
+    private final LongAdder smsSent = new LongAdder();
+    private final LongAdder geocoderRequests = new LongAdder();
+    private final LongAdder geolocationRequests = new LongAdder();
 
-    private int requests;
-    private int messagesReceived;
-    private int messagesStored;
-    private int mailSent;
-    private int smsSent;
-    private int geocoderRequests;
-    private int geolocationRequests;
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
 
     @Inject
     public StatisticsManager(Config config, Storage storage, Client client, ObjectMapper objectMapper) {
@@ -76,41 +80,49 @@ public class StatisticsManager {
         this.objectMapper = objectMapper;
     }
 
+    private static long getNextSplit(long time) {
+        ZoneId zone = ZoneId.systemDefault();
+        return Instant.ofEpochMilli(time).atZone(zone).toLocalDate().plusDays(1)
+                .atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private static int drainCount(Iterator<?> iterator) {
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            count += 1;
+        }
+        return count;
+    }
+
     private void checkSplit() {
-        int currentUpdate = Calendar.getInstance().get(SPLIT_MODE);
-        if (lastUpdate.getAndSet(currentUpdate) != currentUpdate) {
+        long currentTime = System.currentTimeMillis();
+        long split = nextSplit.get();
+        if (currentTime >= split && nextSplit.compareAndSet(split, getNextSplit(currentTime))) {
             Statistics statistics = new Statistics();
 
-            synchronized (this) {
-                statistics.setCaptureTime(new Date());
-                statistics.setActiveUsers(users.size());
-                statistics.setActiveDevices(deviceProtocols.size());
-                statistics.setRequests(requests);
-                statistics.setMessagesReceived(messagesReceived);
-                statistics.setMessagesStored(messagesStored);
-                statistics.setMailSent(mailSent);
-                statistics.setSmsSent(smsSent);
-                statistics.setGeocoderRequests(geocoderRequests);
-                statistics.setGeolocationRequests(geolocationRequests);
-                if (!deviceProtocols.isEmpty()) {
-                    Map<String, Integer> protocols = new HashMap<>();
-                    for (String protocol : deviceProtocols.values()) {
-                        protocols.compute(protocol, (key, count) -> count != null ? count + 1 : 1);
-                    }
-                    statistics.setProtocols(protocols);
-                }
-
-                users.clear();
-                deviceProtocols.clear();
-                deviceMessages.clear();
-                requests = 0;
-                messagesReceived = 0;
-                messagesStored = 0;
-                mailSent = 0;
-                smsSent = 0;
-                geocoderRequests = 0;
-                geolocationRequests = 0;
+            statistics.setCaptureTime(new Date(currentTime));
+            statistics.setActiveUsers(drainCount(users.iterator()));
+            statistics.setRequests((int) requests.sumThenReset());
+            statistics.setMessagesReceived((int) messagesReceived.sumThenReset());
+            statistics.setMessagesStored((int) messagesStored.sumThenReset());
+            statistics.setMailSent((int) mailSent.sumThenReset());
+            statistics.setSmsSent((int) smsSent.sumThenReset());
+            statistics.setGeocoderRequests((int) geocoderRequests.sumThenReset());
+            statistics.setGeolocationRequests((int) geolocationRequests.sumThenReset());
+
+            Map<String, Integer> protocols = new HashMap<>();
+            var iterator = deviceProtocols.values().iterator();
+            while (iterator.hasNext()) {
+                protocols.merge(iterator.next(), 1, Integer::sum);
+                iterator.remove();
+            }
+            statistics.setActiveDevices(drainCount(deviceMessages.keySet().iterator()));
+            if (!protocols.isEmpty()) {
+                statistics.setProtocols(protocols);
             }
+            gauges.forEach((key, gauge) -> statistics.set(key, gauge.getAsLong()));
 
             try {
                 storage.addObject(statistics, new Request(new Columns.Exclude("id")));
@@ -154,54 +166,64 @@ public class StatisticsManager {
         }
     }
 
-    public synchronized void registerRequest(long userId) {
+    public void registerRequest(long userId) {
         checkSplit();
-        requests += 1;
+        requests.increment();
         if (userId != 0 && userId != ServiceAccountUser.ID) {
             users.add(userId);
         }
     }
 
-    public synchronized void registerMessageReceived() {
+    /**
+     * Register a value sampled into the statistics attributes at every daily capture.
+     */
+    public void registerGauge(String key, LongSupplier gauge) {
+        gauges.put(key, gauge);
+    }
+
+    public void registerMessageReceived() {
         checkSplit();
-        messagesReceived += 1;
+        messagesReceived.increment();
     }
 
-    public synchronized void registerMessageStored(long deviceId, String protocol) {
+    public void registerMessageStored(long deviceId, String protocol) {
         checkSplit();
-        messagesStored += 1;
+        messagesStored.increment();
         if (deviceId != 0) {
-            deviceProtocols.put(deviceId, protocol);
-            deviceMessages.merge(deviceId, 1, Integer::sum);
+            if (protocol != null) {
+                deviceProtocols.put(deviceId, protocol);
+            }
+            deviceMessages.computeIfAbsent(deviceId, key -> new LongAdder()).increment();
         }
     }
 
-    public synchronized int messageStoredCount() {
-        return messagesStored;
+    public int messageStoredCount() {
+        return messagesStored.intValue();
     }
 
-    public synchronized int messageStoredCount(long deviceId) {
-        return deviceMessages.getOrDefault(deviceId, 0);
+    public int messageStoredCount(long deviceId) {
+        LongAdder count = deviceMessages.get(deviceId);
+        return count != null ? count.intValue() : 0;
     }
 
-    public synchronized void registerMail() {
+    public void registerMail() {
         checkSplit();
-        mailSent += 1;
+        mailSent.increment();
     }
 
-    public synchronized void registerSms() {
+    public void registerSms() {
         checkSplit();
-        smsSent += 1;
+        smsSent.increment();
     }
 
-    public synchronized void registerGeocoderRequest() {
+    public void registerGeocoderRequest() {
         checkSplit();
-        geocoderRequests += 1;
+        geocoderRequests.increment();
     }
 
-    public synchronized void registerGeolocationRequest() {
+    public void registerGeolocationRequest() {
         checkSplit();
-        geolocationRequests += 1;
+        geolocationRequests.increment();
     }
 
 }
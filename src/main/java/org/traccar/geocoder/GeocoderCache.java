@@ -0,0 +1,290 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geocoder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.LifecycleObject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Address cache keyed by geohash of the coordinates, so nearby positions share cached results. Reads don't take any
+ * locks; eviction uses the second chance (CLOCK) approximation of LRU. If a file is provided, added entries are
+ * appended to it and loaded again after restart. While started, a background task flushes the file and rewrites it
+ * with the current entries once the appended ones exceed the capacity. Stopping flushes and closes the file.
+ */
+public class GeocoderCache implements LifecycleObject {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeocoderCache.class);
+
+    public static final int DEFAULT_PRECISION = 9;
+
+    private static final int FILE_MAGIC = 0x54474332;
+    private static final long FLUSH_INTERVAL = 10_000;
+
+    private static final class Entry {
+        private final String address;
+        private volatile boolean referenced;
+
+        private Entry(String address) {
+            this.address = address;
+        }
+    }
+
+    private final int capacity;
+    private final int precision;
+    private final Path file;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Long> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private DataOutputStream output;
+    private int appended;
+
+    private ScheduledExecutorService scheduler;
+
+    public GeocoderCache(int capacity, int precision, Path file) {
+        this.capacity = capacity;
+        this.precision = Math.clamp(precision, 1, 12);
+        this.file = file;
+        if (file != null) {
+            load();
+        }
+    }
+
+    /**
+     * Encode coordinates as a geohash with the given number of characters. Each character holds five bits, with
+     * the precision stored in the lowest bits so that keys of different precision don't collide.
+     */
+    public static long encode(double latitude, double longitude, int precision) {
+        double minLatitude = -90;
+        double maxLatitude = 90;
+        double minLongitude = -180;
+        double maxLongitude = 180;
+        long hash = 0;
+        int bits = precision * 5;
+        for (int i = 0; i < bits; i++) {
+            hash <<= 1;
+            if (i % 2 == 0) {
+                double middle = (minLongitude + maxLongitude) / 2;
+                if (longitude >= middle) {
+                    hash |= 1;
+                    minLongitude = middle;
+                } else {
+                    maxLongitude = middle;
+                }
+            } else {
+                double middle = (minLatitude + maxLatitude) / 2;
+                if (latitude >= middle) {
+                    hash |= 1;
+                    minLatitude = middle;
+                } else {
+                    maxLatitude = middle;
+                }
+            }
+        }
+        return hash << 4 | precision;
+    }
+
+    public long getKey(double latitude, double longitude) {
+        return encode(latitude, longitude, precision);
+    }
+
+    public String get(long key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.referenced = true;
+            return entry.address;
+        }
+        return null;
+    }
+
+    public void put(long key, String address) {
+        if (entries.put(key, new Entry(address)) == null) {
+            clock.add(key);
+            if (size.incrementAndGet() > capacity) {
+                evict();
+            }
+        }
+        if (file != null) {
+            append(key, address);
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private void evict() {
+        while (size.get() > capacity) {
+            Long key = clock.poll();
+            if (key == null) {
+                return;
+            }
+            Entry entry = entries.get(key);
+            if (entry != null && entry.referenced) {
+                entry.referenced = false;
+                clock.add(key);
+            } else if (entries.remove(key) != null) {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    private void load() {
+        if (Files.exists(file)) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (input.readInt() == FILE_MAGIC && input.readInt() == precision) {
+                    while (true) {
+                        long key = input.readLong();
+                        String address = readString(input);
+                        if (entries.put(key, new Entry(address)) == null) {
+                            clock.add(key);
+                            if (size.incrementAndGet() > capacity) {
+                                evict();
+                            }
+                        }
+                    }
+                }
+            } catch (EOFException e) {
+                LOGGER.debug("Geocoder cache loaded");
+            } catch (IOException e) {
+                LOGGER.warn("Geocoder cache load error", e);
+            }
+        }
+        compact();
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid string length");
+        }
+        return new String(input.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] data = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(data.length);
+        output.write(data);
+    }
+
+    private void compact() {
+        try {
+            if (output != null) {
+                output.close();
+                output = null;
+            }
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream compacted = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                compacted.writeInt(FILE_MAGIC);
+                compacted.writeInt(precision);
+                for (var entry : entries.entrySet()) {
+                    compacted.writeLong(entry.getKey());
+                    writeString(compacted, entry.getValue().address);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            output = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(file, StandardOpenOption.APPEND)));
+            appended = 0;
+        } catch (IOException e) {
+            LOGGER.warn("Geocoder cache file error", e);
+        }
+    }
+
+    private synchronized void append(long key, String address) {
+        if (output != null) {
+            try {
+                output.writeLong(key);
+                writeString(output, address);
+                appended += 1;
+            } catch (IOException e) {
+                LOGGER.warn("Geocoder cache write error", e);
+                output = null;
+            }
+        }
+    }
+
+    /**
+     * Write appended entries to the file, or rewrite the file with the current entries if more entries have been
+     * appended than the cache can hold.
+     */
+    public synchronized void flush() {
+        if (output != null) {
+            if (appended > capacity) {
+                compact();
+            } else {
+                try {
+                    output.flush();
+                } catch (IOException e) {
+                    LOGGER.warn("Geocoder cache write error", e);
+                    output = null;
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (file != null && scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "GeocoderCache");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+        if (output != null) {
+            try {
+                output.close();
+            } catch (IOException e) {
+                LOGGER.warn("Geocoder cache write error", e);
+            }
+            output = null;
+        }
+    }
+
+}
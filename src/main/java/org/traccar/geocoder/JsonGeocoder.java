@@ -26,10 +26,10 @@ import jakarta.json.JsonValue;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.InvocationCallback;
 
-import java.util.AbstractMap;
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class JsonGeocoder implements Geocoder {
 
@@ -40,22 +40,22 @@ public abstract class JsonGeocoder implements Geocoder {
     private final AddressFormat addressFormat;
     private StatisticsManager statisticsManager;
 
-    private Map<Map.Entry<Double, Double>, String> cache;
+    private GeocoderCache cache;
+    private final Map<Long, List<ReverseGeocoderCallback>> pending = new ConcurrentHashMap<>();
 
     public JsonGeocoder(Client client, String url, final int cacheSize, AddressFormat addressFormat) {
         this.client = client;
         this.url = url;
         this.addressFormat = addressFormat;
         if (cacheSize > 0) {
-            this.cache = Collections.synchronizedMap(new LinkedHashMap<>() {
-                @Override
-                protected boolean removeEldestEntry(Map.Entry eldest) {
-                    return size() > cacheSize;
-                }
-            });
+            this.cache = new GeocoderCache(cacheSize, GeocoderCache.DEFAULT_PRECISION, null);
         }
     }
 
+    public void setCache(GeocoderCache cache) {
+        this.cache = cache;
+    }
+
     @Override
     public void setStatisticsManager(StatisticsManager statisticsManager) {
         this.statisticsManager = statisticsManager;
@@ -91,14 +91,13 @@ public abstract class JsonGeocoder implements Geocoder {
         return null;
     }
 
-    private String handleResponse(
-            double latitude, double longitude, JsonObject json, ReverseGeocoderCallback callback) {
+    private String handleResponse(JsonObject json, long key, ReverseGeocoderCallback callback) {
 
         Address address = parseAddress(json);
         if (address != null) {
             String formattedAddress = addressFormat.format(address);
             if (cache != null) {
-                cache.put(new AbstractMap.SimpleImmutableEntry<>(latitude, longitude), formattedAddress);
+                cache.put(key, formattedAddress);
             }
             if (callback != null) {
                 callback.onSuccess(formattedAddress);
@@ -115,12 +114,33 @@ public abstract class JsonGeocoder implements Geocoder {
         return null;
     }
 
+    private ReverseGeocoderCallback completePending(long key) {
+        List<ReverseGeocoderCallback> callbacks = pending.remove(key);
+        return new ReverseGeocoderCallback() {
+            @Override
+            public void onSuccess(String address) {
+                synchronized (callbacks) {
+                    callbacks.forEach(callback -> callback.onSuccess(address));
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                synchronized (callbacks) {
+                    callbacks.forEach(callback -> callback.onFailure(e));
+                }
+            }
+        };
+    }
+
     @Override
     public String getAddress(
             final double latitude, final double longitude, final ReverseGeocoderCallback callback) {
 
+        long key = 0;
         if (cache != null) {
-            String cachedAddress = cache.get(new AbstractMap.SimpleImmutableEntry<>(latitude, longitude));
+            key = cache.getKey(latitude, longitude);
+            String cachedAddress = cache.get(key);
             if (cachedAddress != null) {
                 if (callback != null) {
                     callback.onSuccess(cachedAddress);
@@ -129,6 +149,21 @@ public abstract class JsonGeocoder implements Geocoder {
             }
         }
 
+        if (callback != null && cache != null) {
+            List<ReverseGeocoderCallback> callbacks = new ArrayList<>();
+            callbacks.add(callback);
+            List<ReverseGeocoderCallback> existing = pending.putIfAbsent(key, callbacks);
+            if (existing != null) {
+                synchronized (existing) {
+                    if (pending.get(key) == existing) {
+                        existing.add(callback);
+                        return null;
+                    }
+                }
+                return getAddress(latitude, longitude, callback);
+            }
+        }
+
         if (statisticsManager != null) {
             statisticsManager.registerGeocoderRequest();
         }
@@ -136,20 +171,21 @@ public abstract class JsonGeocoder implements Geocoder {
         var request = client.target(String.format(url, latitude, longitude)).request();
 
         if (callback != null) {
+            long requestKey = key;
             request.async().get(new InvocationCallback<JsonObject>() {
                 @Override
                 public void completed(JsonObject json) {
-                    handleResponse(latitude, longitude, json, callback);
+                    handleResponse(json, requestKey, cache != null ? completePending(requestKey) : callback);
                 }
 
                 @Override
                 public void failed(Throwable throwable) {
-                    callback.onFailure(throwable);
+                    (cache != null ? completePending(requestKey) : callback).onFailure(throwable);
                 }
             });
         } else {
             try {
-                return handleResponse(latitude, longitude, request.get(JsonObject.class), null);
+                return handleResponse(request.get(JsonObject.class), key, null);
             } catch (Exception e) {
                 LOGGER.warn("Geocoder network error", e);
             }
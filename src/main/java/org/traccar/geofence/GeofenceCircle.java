@@ -22,6 +22,8 @@ import org.traccar.helper.DistanceCalculator;
 
 public class GeofenceCircle extends GeofenceGeometry {
 
+    private static final double BOUNDARY_PADDING = 1.01;
+
     private final double centerLatitude;
     private final double centerLongitude;
     private final double radius;
@@ -31,8 +33,29 @@ public class GeofenceCircle extends GeofenceGeometry {
         centerLatitude = decoded.latitude;
         centerLongitude = decoded.longitude;
         radius = decoded.radius;
-        setMin(new Coordinate(centerLatitude - radius, centerLongitude - radius));
-        setMax(new Coordinate(centerLatitude + radius, centerLongitude + radius));
+        calculateCircleBoundary();
+    }
+
+    /**
+     * Bounding box of the spherical cap, slightly enlarged to cover the difference between the earth radius used by
+     * the delta helpers and the distance calculation. Circles that cross the antimeridian or cover a pole span all
+     * longitudes, so the bounding box check is skipped for them and the index treats them as unbounded.
+     */
+    private void calculateCircleBoundary() {
+        double latitudeDelta = DistanceCalculator.getLatitudeDelta(radius) * BOUNDARY_PADDING;
+        double minLatitude = centerLatitude - latitudeDelta;
+        double maxLatitude = centerLatitude + latitudeDelta;
+        double longitudeSin = Math.sin(Math.toRadians(latitudeDelta)) / Math.cos(Math.toRadians(centerLatitude));
+        double longitudeDelta = longitudeSin < 1 ? Math.toDegrees(Math.asin(longitudeSin)) : 180;
+        double minLongitude = centerLongitude - longitudeDelta;
+        double maxLongitude = centerLongitude + longitudeDelta;
+        if (latitudeDelta >= 90 || minLatitude < -90 || maxLatitude > 90
+                || minLongitude < -180 || maxLongitude > 180) {
+            minLongitude = -180;
+            maxLongitude = 180;
+        }
+        setMin(new Coordinate(Math.max(minLatitude, -90), minLongitude));
+        setMax(new Coordinate(Math.min(maxLatitude, 90), maxLongitude));
     }
 
     @Override
@@ -24,6 +24,14 @@ public abstract class GeofenceGeometry {
     private Coordinate min;
     private Coordinate max;
 
+    public Coordinate getMin() {
+        return min;
+    }
+
+    public Coordinate getMax() {
+        return max;
+    }
+
     protected void setMin(Coordinate min) {
         this.min = min;
     }
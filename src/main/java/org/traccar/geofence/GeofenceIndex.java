@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geofence;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Multi-level grid over geometry bounding boxes. Each item is stored on the finest level where its bounding box
+ * covers at most two cells in each direction, so a point lookup visits a single cell per occupied level and every
+ * candidate is returned once. Geometries without usable longitude bounds are always returned as candidates.
+ * <p>
+ * Updates are serialized, lookups are lock-free.
+ */
+public class GeofenceIndex<T> {
+
+    private static final int LEVELS = 16;
+
+    private final Map<Long, Set<T>> cells = new ConcurrentHashMap<>();
+    private final Set<T> unbounded = ConcurrentHashMap.newKeySet();
+    private final Map<T, long[]> items = new ConcurrentHashMap<>();
+    private final int[] levelCounts = new int[LEVELS];
+
+    private volatile int levelMask;
+
+    private static double cellSize(int level) {
+        return 360.0 / (1 << level);
+    }
+
+    private static long cellKey(int level, int latIndex, int lonIndex) {
+        return (long) level << 56 | (long) latIndex << 28 | lonIndex;
+    }
+
+    private static int latIndex(int level, double latitude) {
+        return (int) ((Math.max(-90, Math.min(90, latitude)) + 90) / cellSize(level));
+    }
+
+    private static int lonIndex(int level, double longitude) {
+        return (int) ((Math.max(-180, Math.min(180, longitude)) + 180) / cellSize(level));
+    }
+
+    private static int selectLevel(double span) {
+        int level = 0;
+        while (level < LEVELS - 1 && cellSize(level + 1) >= span) {
+            level += 1;
+        }
+        return level;
+    }
+
+    public synchronized void put(T item, GeofenceGeometry geometry) {
+        remove(item);
+
+        var min = geometry != null ? geometry.getMin() : null;
+        var max = geometry != null ? geometry.getMax() : null;
+        if (min == null || max == null || !(max.lon() - min.lon() <= 180)) {
+            unbounded.add(item);
+            items.put(item, new long[0]);
+            return;
+        }
+
+        int level = selectLevel(Math.max(max.lat() - min.lat(), max.lon() - min.lon()));
+        int minLat = latIndex(level, min.lat());
+        int maxLat = latIndex(level, max.lat());
+        int minLon = lonIndex(level, min.lon());
+        int maxLon = lonIndex(level, max.lon());
+
+        long[] keys = new long[(maxLat - minLat + 1) * (maxLon - minLon + 1)];
+        int count = 0;
+        for (int lat = minLat; lat <= maxLat; lat++) {
+            for (int lon = minLon; lon <= maxLon; lon++) {
+                long key = cellKey(level, lat, lon);
+                cells.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(item);
+                keys[count++] = key;
+            }
+        }
+        items.put(item, keys);
+
+        levelCounts[level] += 1;
+        levelMask |= 1 << level;
+    }
+
+    public synchronized void remove(T item) {
+        long[] keys = items.remove(item);
+        if (keys == null) {
+            return;
+        }
+        if (keys.length == 0) {
+            unbounded.remove(item);
+            return;
+        }
+        for (long key : keys) {
+            Set<T> cell = cells.get(key);
+            if (cell != null) {
+                cell.remove(item);
+                if (cell.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        }
+        int level = (int) (keys[0] >>> 56);
+        levelCounts[level] -= 1;
+        if (levelCounts[level] == 0) {
+            levelMask &= ~(1 << level);
+        }
+    }
+
+    public boolean contains(T item) {
+        return items.containsKey(item);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public void query(double latitude, double longitude, Consumer<T> consumer) {
+        unbounded.forEach(consumer);
+        int mask = levelMask;
+        for (int level = 0; level < LEVELS; level++) {
+            if ((mask & 1 << level) != 0) {
+                Set<T> cell = cells.get(cellKey(level, latIndex(level, latitude), lonIndex(level, longitude)));
+                if (cell != null) {
+                    cell.forEach(consumer);
+                }
+            }
+        }
+    }
+
+}
@@ -27,49 +27,71 @@ import java.util.List;
 
 public class GeofencePolygon extends GeofenceGeometry {
 
-    private final List<Coordinate> coordinates;
+    private static final int SLAB_THRESHOLD = 64;
+    private static final int SLAB_EDGES = 8;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] normalizedLongitudes;
 
     private final double[] constant;
     private final double[] multiple;
 
     private final boolean needNormalize;
 
+    private double slabOrigin;
+    private double slabEnd;
+    private double slabWidth;
+    private int[] slabOffsets;
+    private int[] slabEdges;
+
     public GeofencePolygon(String wkt) throws ParseException {
-        coordinates = fromWkt(wkt);
+        List<Coordinate> coordinates = fromWkt(wkt);
         calculateBoundary(coordinates, 0);
 
         int polyCorners = coordinates.size();
         int i;
         int j = polyCorners - 1;
 
+        latitudes = new double[polyCorners];
+        longitudes = new double[polyCorners];
+        normalizedLongitudes = new double[polyCorners];
         constant = new double[polyCorners];
         multiple = new double[polyCorners];
 
         boolean hasNegative = false;
         boolean hasPositive = false;
         for (i = 0; i < polyCorners; i++) {
-            if (coordinates.get(i).lon() > 90) {
+            latitudes[i] = coordinates.get(i).lat();
+            longitudes[i] = coordinates.get(i).lon();
+            if (longitudes[i] > 90) {
                 hasPositive = true;
-            } else if (coordinates.get(i).lon() < -90) {
+            } else if (longitudes[i] < -90) {
                 hasNegative = true;
             }
         }
         needNormalize = hasPositive && hasNegative;
 
+        for (i = 0; i < polyCorners; i++) {
+            normalizedLongitudes[i] = normalizeLon(longitudes[i]);
+        }
+
+        double[] lon = normalizedLongitudes;
         for (i = 0; i < polyCorners; j = i++) {
-            if (normalizeLon(coordinates.get(j).lon()) == normalizeLon(coordinates.get(i).lon())) {
-                constant[i] = coordinates.get(i).lon();
+            if (lon[j] == lon[i]) {
+                constant[i] = longitudes[i];
                 multiple[i] = 0;
             } else {
-                constant[i] = coordinates.get(i).lat()
-                        - (normalizeLon(coordinates.get(i).lon()) * coordinates.get(j).lat())
-                        / (normalizeLon(coordinates.get(j).lon()) - normalizeLon(coordinates.get(i).lon()))
-                        + (normalizeLon(coordinates.get(i).lon()) * coordinates.get(i).lat())
-                        / (normalizeLon(coordinates.get(j).lon()) - normalizeLon(coordinates.get(i).lon()));
-                multiple[i] = (coordinates.get(j).lat() - coordinates.get(i).lat())
-                        / (normalizeLon(coordinates.get(j).lon()) - normalizeLon(coordinates.get(i).lon()));
+                constant[i] = latitudes[i]
+                        - (lon[i] * latitudes[j]) / (lon[j] - lon[i])
+                        + (lon[i] * latitudes[i]) / (lon[j] - lon[i]);
+                multiple[i] = (latitudes[j] - latitudes[i]) / (lon[j] - lon[i]);
             }
         }
+
+        if (polyCorners >= SLAB_THRESHOLD) {
+            buildSlabs();
+        }
     }
 
     private double normalizeLon(double lon) {
@@ -79,22 +101,84 @@ public class GeofencePolygon extends GeofenceGeometry {
         return lon;
     }
 
+    /**
+     * Split the normalized longitude range into slabs and record every edge that spans each slab, so a containment
+     * test only visits the edges that can cross the meridian of the point.
+     */
+    private void buildSlabs() {
+        double[] lon = normalizedLongitudes;
+        int polyCorners = lon.length;
+
+        double minLon = lon[0];
+        double maxLon = lon[0];
+        for (double value : lon) {
+            minLon = Math.min(minLon, value);
+            maxLon = Math.max(maxLon, value);
+        }
+        if (!(maxLon > minLon)) {
+            return;
+        }
+
+        int slabCount = polyCorners / SLAB_EDGES;
+        slabOrigin = minLon;
+        slabEnd = maxLon;
+        slabWidth = (maxLon - minLon) / slabCount;
+        slabOffsets = new int[slabCount + 1];
+
+        for (int i = 0, j = polyCorners - 1; i < polyCorners; j = i++) {
+            int last = slabIndex(Math.max(lon[i], lon[j]));
+            for (int slab = slabIndex(Math.min(lon[i], lon[j])); slab <= last; slab++) {
+                slabOffsets[slab + 1] += 1;
+            }
+        }
+        for (int slab = 0; slab < slabCount; slab++) {
+            slabOffsets[slab + 1] += slabOffsets[slab];
+        }
+
+        slabEdges = new int[slabOffsets[slabCount]];
+        int[] positions = slabOffsets.clone();
+        for (int i = 0, j = polyCorners - 1; i < polyCorners; j = i++) {
+            int last = slabIndex(Math.max(lon[i], lon[j]));
+            for (int slab = slabIndex(Math.min(lon[i], lon[j])); slab <= last; slab++) {
+                slabEdges[positions[slab]++] = i;
+            }
+        }
+    }
+
+    private int slabIndex(double lon) {
+        int slab = (int) ((lon - slabOrigin) / slabWidth);
+        return Math.max(0, Math.min(slabOffsets.length - 2, slab));
+    }
+
+    private boolean crosses(int i, int j, double longitudeNorm, double latitude) {
+        double[] lon = normalizedLongitudes;
+        return (lon[i] < longitudeNorm && lon[j] >= longitudeNorm
+                || lon[j] < longitudeNorm && lon[i] >= longitudeNorm)
+                && longitudeNorm * multiple[i] + constant[i] < latitude;
+    }
+
     @Override
     protected boolean containsPointInternal(double latitude, double longitude) {
 
-        int polyCorners = coordinates.size();
-        int i;
-        int j = polyCorners - 1;
+        int polyCorners = latitudes.length;
         double longitudeNorm = normalizeLon(longitude);
         boolean oddNodes = false;
 
-        for (i = 0; i < polyCorners; j = i++) {
-            if (normalizeLon(coordinates.get(i).lon()) < longitudeNorm
-                    && normalizeLon(coordinates.get(j).lon()) >= longitudeNorm
-                    || normalizeLon(coordinates.get(j).lon()) < longitudeNorm
-                    && normalizeLon(coordinates.get(i).lon()) >= longitudeNorm) {
-                oddNodes ^= longitudeNorm * multiple[i] + constant[i] < latitude;
+        if (slabOffsets != null) {
+            if (longitudeNorm <= slabOrigin || longitudeNorm > slabEnd) {
+                return false;
             }
+            int slab = slabIndex(longitudeNorm);
+            for (int k = slabOffsets[slab]; k < slabOffsets[slab + 1]; k++) {
+                int i = slabEdges[k];
+                int j = i > 0 ? i - 1 : polyCorners - 1;
+                oddNodes ^= crosses(i, j, longitudeNorm, latitude);
+            }
+            return oddNodes;
+        }
+
+        for (int i = 0, j = polyCorners - 1; i < polyCorners; j = i++) {
+            oddNodes ^= crosses(i, j, longitudeNorm, latitude);
         }
         return oddNodes;
     }
@@ -103,8 +187,8 @@ public class GeofencePolygon extends GeofenceGeometry {
     public double calculateArea() {
         JtsShapeFactory jtsShapeFactory = new JtsSpatialContextFactory().newSpatialContext().getShapeFactory();
         ShapeFactory.PolygonBuilder polygonBuilder = jtsShapeFactory.polygon();
-        for (Coordinate coordinate : coordinates) {
-            polygonBuilder.pointXY(coordinate.lon(), coordinate.lat());
+        for (int i = 0; i < latitudes.length; i++) {
+            polygonBuilder.pointXY(longitudes[i], latitudes[i]);
         }
         return polygonBuilder.build().getArea(SpatialContext.GEO) * DistanceUtils.DEG_TO_KM * DistanceUtils.DEG_TO_KM;
     }
@@ -113,10 +197,10 @@ public class GeofencePolygon extends GeofenceGeometry {
     public String toWkt() {
         StringBuilder buf = new StringBuilder();
         buf.append("POLYGON ((");
-        for (Coordinate coordinate : coordinates) {
-            buf.append(coordinate.lat());
+        for (int i = 0; i < latitudes.length; i++) {
+            buf.append(latitudes[i]);
             buf.append(" ");
-            buf.append(coordinate.lon());
+            buf.append(longitudes[i]);
             buf.append(", ");
         }
         return buf.substring(0, buf.length() - 2) + "))";
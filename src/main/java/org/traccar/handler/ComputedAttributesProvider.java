@@ -18,30 +18,34 @@ package org.traccar.handler;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlContext;
 import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlException;
 import org.apache.commons.jexl3.JexlFeatures;
-import org.apache.commons.jexl3.MapContext;
+import org.apache.commons.jexl3.JexlScript;
 import org.apache.commons.jexl3.introspection.JexlSandbox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.traccar.broadcast.BroadcastInterface;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.helper.ReflectionCache;
 import org.traccar.model.Attribute;
+import org.traccar.model.BaseModel;
 import org.traccar.model.Device;
+import org.traccar.model.ObjectOperation;
 import org.traccar.model.Position;
 import org.traccar.session.cache.CacheManager;
 
-import java.lang.invoke.MethodHandle;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Singleton
-public class ComputedAttributesProvider {
+public class ComputedAttributesProvider implements BroadcastInterface {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ComputedAttributesProvider.class);
 
@@ -53,6 +57,11 @@ public class ComputedAttributesProvider {
     private final boolean includeDeviceAttributes;
     private final boolean includeLastAttributes;
 
+    private record CachedScript(String expression, JexlScript script) {
+    }
+
+    private final Map<Long, CachedScript> scripts = new ConcurrentHashMap<>();
+
     @Inject
     public ComputedAttributesProvider(Config config, CacheManager cacheManager) {
         this.cacheManager = cacheManager;
@@ -76,54 +85,139 @@ public class ComputedAttributesProvider {
                 .create();
         includeDeviceAttributes = config.getBoolean(Keys.PROCESSING_COMPUTED_ATTRIBUTES_DEVICE_ATTRIBUTES);
         includeLastAttributes = config.getBoolean(Keys.PROCESSING_COMPUTED_ATTRIBUTES_LAST_ATTRIBUTES);
+        if (cacheManager != null) {
+            cacheManager.addListener(this);
+        }
+    }
+
+    @Override
+    public <T extends BaseModel> void invalidateObject(
+            boolean local, Class<T> clazz, long id, ObjectOperation operation) {
+        if (clazz.equals(Attribute.class)) {
+            scripts.remove(id);
+        }
+    }
+
+    private JexlScript getScript(Attribute attribute) throws JexlException {
+        String expression = attribute.getExpression();
+        CachedScript cached = scripts.get(attribute.getId());
+        if (cached == null || !cached.expression().equals(expression)) {
+            cached = new CachedScript(expression, engine.createScript(features, engine.createInfo(), expression));
+            scripts.put(attribute.getId(), cached);
+        }
+        return cached.script();
     }
 
     public Object compute(Attribute attribute, Position position) throws JexlException {
-        return engine
-                .createScript(features, engine.createInfo(), attribute.getExpression())
-                .execute(prepareContext(position));
+        return getScript(attribute).execute(new PositionContext(position));
     }
 
-    private MapContext prepareContext(Position position) {
-        MapContext result = new MapContext();
-        if (includeDeviceAttributes) {
-            Device device = cacheManager.getObject(Device.class, position.getDeviceId());
-            if (device != null) {
-                for (var entry : device.getAttributes().entrySet()) {
-                    result.set(entry.getKey(), entry.getValue());
+    /**
+     * Resolves variables on demand instead of copying every property into a map. Lookup order is position
+     * properties, position attributes, last position values with the "last" prefix and then device attributes.
+     * Assignments made by the expression are kept in the context and never modify the position.
+     */
+    private final class PositionContext implements JexlContext {
+
+        private static final String LAST_PREFIX = "last";
+
+        private final Position position;
+        private Position last;
+        private boolean lastLoaded;
+        private Device device;
+        private boolean deviceLoaded;
+        private Map<String, Object> variables;
+
+        private PositionContext(Position position) {
+            this.position = position;
+        }
+
+        private Position getLast() {
+            if (!lastLoaded) {
+                last = includeLastAttributes ? cacheManager.getPosition(position.getDeviceId()) : null;
+                lastLoaded = true;
+            }
+            return last;
+        }
+
+        private Device getDevice() {
+            if (!deviceLoaded) {
+                device = includeDeviceAttributes ? cacheManager.getObject(Device.class, position.getDeviceId()) : null;
+                deviceLoaded = true;
+            }
+            return device;
+        }
+
+        private static ReflectionCache.PropertyMethod getProperty(String name) {
+            var property = ReflectionCache.getProperties(Position.class, "get").get(name);
+            return property != null && !property.type().equals(Map.class) ? property : null;
+        }
+
+        private static boolean hasValue(Position source, String name) {
+            return getProperty(name) != null || source.hasAttribute(name);
+        }
+
+        private static Object getValue(Position source, String name) {
+            var property = getProperty(name);
+            if (property != null) {
+                try {
+                    return property.handle().invokeExact((Object) source);
+                } catch (Throwable error) {
+                    LOGGER.warn("Attribute reflection error", error);
+                    return null;
                 }
             }
+            return source.getAttributes().get(name);
         }
-        Position last = includeLastAttributes ? cacheManager.getPosition(position.getDeviceId()) : null;
-        ReflectionCache.getProperties(Position.class, "get").forEach((name, property) -> {
-            MethodHandle handle = property.handle();
-            try {
-                Object positionValue = handle.invokeExact((Object) position);
-                Object lastValue = last != null ? handle.invokeExact((Object) last) : null;
-                if (!property.type().equals(Map.class)) {
-                    result.set(name, positionValue);
-                    if (last != null) {
-                        result.set(prefixAttribute("last", name), lastValue);
-                    }
-                } else {
-                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) positionValue).entrySet()) {
-                        result.set((String) entry.getKey(), entry.getValue());
-                    }
-                    if (last != null) {
-                        for (Map.Entry<?, ?> entry : ((Map<?, ?>) lastValue).entrySet()) {
-                            result.set(prefixAttribute("last", (String) entry.getKey()), entry.getValue());
-                        }
-                    }
+
+        private String getLastName(String name) {
+            if (name.length() > LAST_PREFIX.length() && name.startsWith(LAST_PREFIX)
+                    && Character.isUpperCase(name.charAt(LAST_PREFIX.length())) && getLast() != null) {
+                String key = name.substring(LAST_PREFIX.length());
+                String decapitalized = Character.toLowerCase(key.charAt(0)) + key.substring(1);
+                if (hasValue(last, decapitalized)) {
+                    return decapitalized;
+                } else if (hasValue(last, key)) {
+                    return key;
                 }
-            } catch (Throwable error) {
-                LOGGER.warn("Attribute reflection error", error);
             }
-        });
-        return result;
-    }
+            return null;
+        }
+
+        @Override
+        public boolean has(String name) {
+            if (variables != null && variables.containsKey(name)) {
+                return true;
+            }
+            if (hasValue(position, name) || getLastName(name) != null) {
+                return true;
+            }
+            return getDevice() != null && device.hasAttribute(name);
+        }
+
+        @Override
+        public Object get(String name) {
+            if (variables != null && variables.containsKey(name)) {
+                return variables.get(name);
+            }
+            if (hasValue(position, name)) {
+                return getValue(position, name);
+            }
+            String lastName = getLastName(name);
+            if (lastName != null) {
+                return getValue(last, lastName);
+            }
+            return getDevice() != null ? device.getAttributes().get(name) : null;
+        }
+
+        @Override
+        public void set(String name, Object value) {
+            if (variables == null) {
+                variables = new HashMap<>();
+            }
+            variables.put(name, value);
+        }
 
-    private String prefixAttribute(String prefix, String key) {
-        return prefix + Character.toUpperCase(key.charAt(0)) + key.substring(1);
     }
 
 }
@@ -15,36 +15,67 @@
  */
 package org.traccar.handler;
 
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.traccar.mapmatcher.MapMatcher;
 import org.traccar.model.Position;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class MapMatcherHandler extends BasePositionHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MapMatcherHandler.class);
 
     private final MapMatcher mapMatcher;
+    private final Timer timer;
+    private final long timeout;
 
-    public MapMatcherHandler(MapMatcher mapMatcher) {
+    public MapMatcherHandler(MapMatcher mapMatcher, Timer timer, long timeout) {
         this.mapMatcher = mapMatcher;
+        this.timer = timer;
+        this.timeout = timeout;
     }
 
     @Override
     public void onPosition(Position position, Callback callback) {
+        AtomicBoolean completed = new AtomicBoolean();
+        Timeout deadline;
+        if (timeout > 0) {
+            deadline = timer.newTimeout(task -> {
+                if (completed.compareAndSet(false, true)) {
+                    LOGGER.debug("Map matcher timeout");
+                    callback.processed(false);
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+        } else {
+            deadline = null;
+        }
         mapMatcher.getPoint(position.getLatitude(), position.getLongitude(),
                 new MapMatcher.MapMatcherCallback() {
             @Override
             public void onSuccess(double latitude, double longitude) {
-                position.setLatitude(latitude);
-                position.setLongitude(longitude);
-                callback.processed(false);
+                if (completed.compareAndSet(false, true)) {
+                    if (deadline != null) {
+                        deadline.cancel();
+                    }
+                    position.setLatitude(latitude);
+                    position.setLongitude(longitude);
+                    callback.processed(false);
+                }
             }
 
             @Override
             public void onFailure(Throwable e) {
-                LOGGER.warn("Map matcher failed", e);
-                callback.processed(false);
+                if (completed.compareAndSet(false, true)) {
+                    if (deadline != null) {
+                        deadline.cancel();
+                    }
+                    LOGGER.warn("Map matcher failed", e);
+                    callback.processed(false);
+                }
             }
         });
     }
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.handler;
+
+import jakarta.inject.Inject;
+import org.traccar.database.PositionSummaryManager;
+import org.traccar.model.Position;
+
+public class PositionSummaryHandler extends BasePositionHandler {
+
+    private final PositionSummaryManager positionSummaryManager;
+
+    @Inject
+    public PositionSummaryHandler(PositionSummaryManager positionSummaryManager) {
+        this.positionSummaryManager = positionSummaryManager;
+    }
+
+    @Override
+    public void onPosition(Position position, Callback callback) {
+        positionSummaryManager.update(position);
+        callback.processed(false);
+    }
+
+}
@@ -22,8 +22,11 @@ import org.slf4j.LoggerFactory;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.helper.model.AttributeUtil;
+import org.traccar.helper.model.MotionSegmentUtil;
 import org.traccar.helper.model.PositionUtil;
 import org.traccar.model.Device;
+import org.traccar.model.Event;
+import org.traccar.model.MotionSegment;
 import org.traccar.model.Position;
 import org.traccar.reports.common.TripsConfig;
 import org.traccar.session.cache.CacheManager;
@@ -35,8 +38,13 @@ import org.traccar.storage.Storage;
 import org.traccar.storage.StorageException;
 import org.traccar.storage.query.Columns;
 import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Order;
 import org.traccar.storage.query.Request;
+
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MotionEventHandler extends BaseEventHandler {
 
@@ -45,12 +53,28 @@ public class MotionEventHandler extends BaseEventHandler {
     private final Config config;
     private final CacheManager cacheManager;
     private final Storage storage;
+    private final boolean storeSegments;
+
+    private static final class OpenSegment {
+        private final Position start;
+        private final boolean motion;
+        private double maxSpeed;
+
+        private OpenSegment(Position start, boolean motion, double maxSpeed) {
+            this.start = start;
+            this.motion = motion;
+            this.maxSpeed = maxSpeed;
+        }
+    }
+
+    private final Map<Long, OpenSegment> openSegments = new ConcurrentHashMap<>();
 
     @Inject
     public MotionEventHandler(Config config, CacheManager cacheManager, Storage storage) {
         this.config = config;
         this.cacheManager = cacheManager;
         this.storage = storage;
+        storeSegments = config.getBoolean(Keys.REPORT_TRIP_STORE);
     }
 
     @Override
@@ -63,19 +87,27 @@ public class MotionEventHandler extends BaseEventHandler {
         }
 
         var attributeProvider = new AttributeUtil.CacheProvider(cacheManager, deviceId);
+        boolean motionStreak = device.getMotionStreak();
+        List<Event> events;
         if (config.getBoolean(Keys.REPORT_TRIP_NEW_LOGIC)) {
             double minDistance = AttributeUtil.lookup(attributeProvider, Keys.REPORT_TRIP_MIN_DISTANCE);
             long minDuration = AttributeUtil.lookup(attributeProvider, Keys.REPORT_TRIP_MIN_DURATION) * 1000;
             long stopGap = AttributeUtil.lookup(attributeProvider, Keys.REPORT_TRIP_STOP_GAP) * 1000;
-            handleNewLogic(device, position, minDistance, minDuration, stopGap, callback);
+            events = handleNewLogic(device, position, minDistance, minDuration, stopGap);
         } else {
             TripsConfig tripsConfig = new TripsConfig(attributeProvider);
-            handleOldLogic(device, position, tripsConfig, callback);
+            events = handleOldLogic(device, position, tripsConfig);
+        }
+        if (storeSegments) {
+            storeSegments(position, events, motionStreak, attributeProvider);
+        }
+        for (var event : events) {
+            callback.eventDetected(event);
         }
     }
 
-    private void handleNewLogic(
-            Device device, Position position, double minDistance, long minDuration, long stopGap, Callback callback) {
+    private List<Event> handleNewLogic(
+            Device device, Position position, double minDistance, long minDuration, long stopGap) {
         NewMotionState state = new NewMotionState();
         state.setMotionStreak(device.getMotionStreak());
         state.setPositions(cacheManager.getPositions(device.getId()));
@@ -110,12 +142,10 @@ public class MotionEventHandler extends BaseEventHandler {
                 LOGGER.warn("Update device motion error", e);
             }
         }
-        for (var event : state.getEvents()) {
-            callback.eventDetected(event);
-        }
+        return state.getEvents();
     }
 
-    private void handleOldLogic(Device device, Position position, TripsConfig tripsConfig, Callback callback) {
+    private List<Event> handleOldLogic(Device device, Position position, TripsConfig tripsConfig) {
         MotionState state = MotionState.fromDevice(device);
         Position last = cacheManager.getPosition(device.getId());
         MotionProcessor.updateState(state, last, position, position.getBoolean(Position.KEY_MOTION), tripsConfig);
@@ -130,9 +160,120 @@ public class MotionEventHandler extends BaseEventHandler {
                 LOGGER.warn("Update device motion error", e);
             }
         }
-        if (state.getEvent() != null) {
-            callback.eventDetected(state.getEvent());
+        return state.getEvent() != null ? List.of(state.getEvent()) : List.of();
+    }
+
+    private Position findPosition(long positionId, Position position) throws StorageException {
+        if (positionId == position.getId()) {
+            return position;
+        }
+        return storage.getObject(Position.class, new Request(
+                new Columns.All(), new Condition.Equals("id", positionId)));
+    }
+
+    /**
+     * Continue from the last stored segment only if the device is still in the state that followed it and its end is
+     * the latest stored motion event. Otherwise segments were missed, so a new chain is started and reports fall back
+     * to positions for the gap.
+     */
+    private OpenSegment restoreSegment(long deviceId, boolean motionStreak) throws StorageException {
+        MotionSegment last = MotionSegmentUtil.getLastSegment(storage, deviceId);
+        if (last == null || last.getMotion() == motionStreak) {
+            return null;
+        }
+        Event lastEvent = storage.getObject(Event.class, new Request(
+                new Columns.Include("positionId"),
+                new Condition.And(
+                        new Condition.Equals("deviceId", deviceId),
+                        new Condition.Or(
+                                new Condition.Equals("type", Event.TYPE_DEVICE_MOVING),
+                                new Condition.Equals("type", Event.TYPE_DEVICE_STOPPED))),
+                new Order("eventTime", true, 1)));
+        if (lastEvent == null || lastEvent.getPositionId() != last.getEndPositionId()) {
+            return null;
+        }
+        Position start = storage.getObject(Position.class, new Request(
+                new Columns.All(), new Condition.Equals("id", last.getEndPositionId())));
+        return start != null ? new OpenSegment(start, !last.getMotion(), -1) : null;
+    }
+
+    private double getMaxSpeed(Position start, Position end) throws StorageException {
+        double maxSpeed = 0;
+        try (var positions = storage.getObjectsStream(Position.class, new Request(
+                new Columns.Include("speed"),
+                new Condition.And(
+                        new Condition.Equals("deviceId", start.getDeviceId()),
+                        new Condition.Between("fixTime", start.getFixTime(), end.getFixTime())),
+                new Order("fixTime")))) {
+            for (var iterator = positions.iterator(); iterator.hasNext();) {
+                maxSpeed = Math.max(maxSpeed, iterator.next().getSpeed());
+            }
+        }
+        return maxSpeed;
+    }
+
+    /**
+     * Persist each completed segment between motion events, so reports can read trips and stops instead of replaying
+     * raw positions. The maximum speed is accumulated the same way the report detector does it.
+     */
+    private void storeSegments(
+            Position position, List<Event> events, boolean motionStreak, AttributeUtil.Provider attributeProvider) {
+        long deviceId = position.getDeviceId();
+        OpenSegment open = openSegments.get(deviceId);
+        if (open != null && open.maxSpeed >= 0) {
+            open.maxSpeed = Math.max(open.maxSpeed, position.getSpeed());
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            if (open == null) {
+                open = restoreSegment(deviceId, motionStreak);
+            }
+            for (Event event : events) {
+                boolean motion = event.getType().equals(Event.TYPE_DEVICE_MOVING);
+                Position eventPosition = findPosition(event.getPositionId(), position);
+                if (eventPosition == null) {
+                    open = null;
+                    continue;
+                }
+                if (open != null && open.motion != motion) {
+                    storeSegment(open, eventPosition, attributeProvider);
+                }
+                open = new OpenSegment(eventPosition, motion, 0);
+            }
+        } catch (StorageException e) {
+            LOGGER.warn("Store motion segment error", e);
+            open = null;
+        }
+        if (open != null) {
+            openSegments.put(deviceId, open);
+        } else {
+            openSegments.remove(deviceId);
         }
     }
 
+    private void storeSegment(
+            OpenSegment open, Position end, AttributeUtil.Provider attributeProvider) throws StorageException {
+        Position start = open.start;
+        double maxSpeed = open.maxSpeed;
+        if (maxSpeed < 0) {
+            maxSpeed = open.motion ? getMaxSpeed(start, end) : 0;
+        }
+        TripsConfig tripsConfig = new TripsConfig(attributeProvider);
+
+        MotionSegment segment = new MotionSegment();
+        segment.setDeviceId(start.getDeviceId());
+        segment.setMotion(open.motion);
+        segment.setStartPositionId(start.getId());
+        segment.setStartTime(start.getFixTime());
+        segment.setEndPositionId(end.getId());
+        segment.setEndTime(end.getFixTime());
+        segment.setDistance(PositionUtil.calculateDistance(start, end, !tripsConfig.getIgnoreOdometer()));
+        segment.setDuration(end.getFixTime().getTime() - start.getFixTime().getTime());
+        segment.setMaxSpeed(maxSpeed);
+        segment.setTripsConfig(MotionSegmentUtil.getTripsConfig(config, attributeProvider));
+        storage.addObject(segment, new Request(new Columns.Exclude("id")));
+    }
+
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.helper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Least recently used cache of values for cells of a coordinate grid. Callers that miss the cache can wait for a
+ * cell that is already being requested, so only the first of them has to query the underlying service.
+ *
+ * @param <V> cached value
+ * @param <C> callback waiting for a value
+ */
+public class GridCache<V, C> {
+
+    private final double gridStep;
+
+    private final Map<Long, V> cache;
+    private final Map<Long, List<C>> pending = new HashMap<>();
+
+    public GridCache(int cacheSize, double gridSize) {
+        gridStep = DistanceCalculator.getLatitudeDelta(gridSize);
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public long getKey(double latitude, double longitude) {
+        long latitudeIndex = Math.round(latitude / gridStep);
+        long longitudeIndex = Math.round(longitude / gridStep);
+        return latitudeIndex << 32 | longitudeIndex & 0xffffffffL;
+    }
+
+    public V get(long key) {
+        return cache.get(key);
+    }
+
+    /**
+     * Register a callback for the cell. Returns true if no request for the cell is in progress, in which case the
+     * caller has to make one and pass the result to {@link #complete}.
+     */
+    public boolean await(long key, C callback) {
+        synchronized (pending) {
+            List<C> callbacks = pending.get(key);
+            if (callbacks != null) {
+                callbacks.add(callback);
+                return false;
+            }
+            callbacks = new ArrayList<>();
+            callbacks.add(callback);
+            pending.put(key, callbacks);
+            return true;
+        }
+    }
+
+    /**
+     * Store the value, unless it is null, and return the callbacks waiting for the cell.
+     */
+    public List<C> complete(long key, V value) {
+        if (value != null) {
+            cache.put(key, value);
+        }
+        synchronized (pending) {
+            List<C> callbacks = pending.remove(key);
+            return callbacks != null ? callbacks : List.of();
+        }
+    }
+
+}
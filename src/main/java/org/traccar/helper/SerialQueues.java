@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.helper;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-key mailboxes that let items for the same key be processed one at a time and in order, while items
+ * for different keys never contend on a shared lock. A mailbox is released as soon as it becomes idle.
+ */
+public final class SerialQueues<T> {
+
+    private static final class Mailbox<T> {
+        private final Queue<T> items = new ArrayDeque<>();
+        private boolean closed;
+    }
+
+    private final Map<Long, Mailbox<T>> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Queues an item. Returns true if the mailbox was idle, in which case the caller should process the item
+     * and then call {@link #next(long)} when finished.
+     */
+    public boolean offer(long key, T item) {
+        size.incrementAndGet();
+        while (true) {
+            Mailbox<T> mailbox = mailboxes.computeIfAbsent(key, k -> new Mailbox<>());
+            synchronized (mailbox) {
+                if (!mailbox.closed) {
+                    boolean idle = mailbox.items.isEmpty();
+                    mailbox.items.offer(item);
+                    return idle;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the item that has finished processing and returns the next one, or null if the mailbox is idle.
+     */
+    public T next(long key) {
+        Mailbox<T> mailbox = mailboxes.get(key);
+        if (mailbox == null) {
+            return null;
+        }
+        synchronized (mailbox) {
+            if (mailbox.items.poll() != null) {
+                size.decrementAndGet();
+            }
+            T next = mailbox.items.peek();
+            if (next == null) {
+                mailbox.closed = true;
+                mailboxes.remove(key, mailbox);
+            }
+            return next;
+        }
+    }
+
+    /**
+     * Number of queued items, including the ones currently being processed.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Number of keys with queued items.
+     */
+    public int activeKeys() {
+        return mailboxes.size();
+    }
+
+}
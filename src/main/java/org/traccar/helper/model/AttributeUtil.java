@@ -30,6 +30,9 @@ import org.traccar.storage.query.Columns;
 import org.traccar.storage.query.Condition;
 import org.traccar.storage.query.Request;
 
+import java.util.Map;
+import java.util.Optional;
+
 public final class AttributeUtil {
 
     private AttributeUtil() {}
@@ -42,11 +45,23 @@ public final class AttributeUtil {
     }
 
     public static <T> T lookup(CacheManager cacheManager, ConfigKey<T> key, long deviceId) {
-        return lookup(new CacheProvider(cacheManager, deviceId), key);
+        Map<String, Optional<Object>> resolved = cacheManager.getResolvedAttributes(deviceId);
+        if (resolved == null) {
+            return lookup(new CacheProvider(cacheManager, deviceId), key);
+        }
+        Optional<Object> result = resolved.get(key.getKey());
+        if (result == null) {
+            result = Optional.ofNullable(resolve(new CacheProvider(cacheManager, deviceId), key));
+            resolved.put(key.getKey(), result);
+        }
+        return convert(key, result.orElse(null));
     }
 
-    @SuppressWarnings("unchecked")
     public static <T> T lookup(Provider provider, ConfigKey<T> key) {
+        return convert(key, resolve(provider, key));
+    }
+
+    private static Object resolve(Provider provider, ConfigKey<?> key) {
         Device device = provider.getDevice();
         Object result = device.getAttributes().get(key.getKey());
         long groupId = device.getGroupId();
@@ -66,7 +81,11 @@ public final class AttributeUtil {
         if (result == null && key.hasType(KeyType.CONFIG)) {
             result = provider.getConfig().getString(key.getKey());
         }
+        return result;
+    }
 
+    @SuppressWarnings("unchecked")
+    private static <T> T convert(ConfigKey<T> key, Object result) {
         if (result != null) {
             Class<T> valueClass = key.getValueClass();
             if (valueClass.equals(Boolean.class)) {
@@ -28,7 +28,8 @@ public final class GeofenceUtil {
 
     public static List<Long> getCurrentGeofences(CacheManager cacheManager, Position position) {
         List<Long> result = new ArrayList<>();
-        for (Geofence geofence : cacheManager.getDeviceObjects(position.getDeviceId(), Geofence.class)) {
+        for (Geofence geofence : cacheManager.getDeviceGeofences(
+                position.getDeviceId(), position.getLatitude(), position.getLongitude())) {
             if (geofence.containsPosition(position)) {
                 result.add(geofence.getId());
             }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.helper.model;
+
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.MotionSegment;
+import org.traccar.reports.common.TripsConfig;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Order;
+import org.traccar.storage.query.Request;
+
+import java.util.Date;
+import java.util.List;
+
+public final class MotionSegmentUtil {
+
+    private MotionSegmentUtil() {}
+
+    /**
+     * Describe the configuration that affects motion detection, so segments detected with different settings can be
+     * told apart from current ones.
+     */
+    public static String getTripsConfig(Config config, AttributeUtil.Provider attributeProvider) {
+        if (config.getBoolean(Keys.REPORT_TRIP_NEW_LOGIC)) {
+            return "new:" + AttributeUtil.lookup(attributeProvider, Keys.REPORT_TRIP_MIN_DISTANCE)
+                    + ":" + AttributeUtil.lookup(attributeProvider, Keys.REPORT_TRIP_MIN_DURATION)
+                    + ":" + AttributeUtil.lookup(attributeProvider, Keys.REPORT_TRIP_STOP_GAP);
+        } else {
+            TripsConfig tripsConfig = new TripsConfig(attributeProvider);
+            return "old:" + tripsConfig.getMinimalTripDistance()
+                    + ":" + tripsConfig.getMinimalTripDuration()
+                    + ":" + tripsConfig.getMinimalParkingDuration()
+                    + ":" + tripsConfig.getMinimalNoDataDuration()
+                    + ":" + tripsConfig.getUseIgnition();
+        }
+    }
+
+    public static MotionSegment getLastSegment(Storage storage, long deviceId) throws StorageException {
+        return storage.getObject(MotionSegment.class, new Request(
+                new Columns.All(),
+                new Condition.Equals("deviceId", deviceId),
+                new Order("startTime", true, 1)));
+    }
+
+    public static List<MotionSegment> getSegments(
+            Storage storage, long deviceId, Date from, Date to) throws StorageException {
+        return storage.getObjects(MotionSegment.class, new Request(
+                new Columns.All(),
+                Condition.merge(List.of(
+                        new Condition.Equals("deviceId", deviceId),
+                        new Condition.Compare("startTime", ">=", from),
+                        new Condition.Compare("endTime", "<=", to))),
+                new Order("startTime")));
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.mapmatcher;
+
+import io.netty.util.Timer;
+import org.traccar.helper.GridCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Map matcher decorator that collects points over a short window and submits them in a single batch. Optionally
+ * caches snapped points for cells of a coordinate grid, in which case lookups for a cell that is already being
+ * matched wait for the same result.
+ */
+public class BatchingMapMatcher implements MapMatcher {
+
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private record Entry(double latitude, double longitude, long key, MapMatcherCallback callback) {
+    }
+
+    private final MapMatcher mapMatcher;
+    private final Timer timer;
+    private final long batchWindow;
+
+    private final GridCache<double[], MapMatcherCallback> cache;
+    private List<Entry> batch = new ArrayList<>();
+
+    public BatchingMapMatcher(
+            MapMatcher mapMatcher, Timer timer, long batchWindow, int cacheSize, double gridSize) {
+        this.mapMatcher = mapMatcher;
+        this.timer = timer;
+        this.batchWindow = batchWindow;
+        cache = cacheSize > 0 ? new GridCache<>(cacheSize, gridSize) : null;
+    }
+
+    @Override
+    public void getPoint(double latitude, double longitude, MapMatcherCallback callback) {
+        long key = 0;
+        if (cache != null) {
+            key = cache.getKey(latitude, longitude);
+            double[] cached = cache.get(key);
+            if (cached != null) {
+                callback.onSuccess(cached[0], cached[1]);
+                return;
+            }
+            if (!cache.await(key, callback)) {
+                return;
+            }
+        }
+
+        List<Entry> ready = null;
+        synchronized (this) {
+            batch.add(new Entry(latitude, longitude, key, callback));
+            if (batchWindow <= 0 || batch.size() >= MAX_BATCH_SIZE) {
+                ready = takeBatch();
+            } else if (batch.size() == 1) {
+                timer.newTimeout(timeout -> flush(), batchWindow, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (ready != null) {
+            submit(ready);
+        }
+    }
+
+    private List<Entry> takeBatch() {
+        List<Entry> result = batch;
+        batch = new ArrayList<>();
+        return result;
+    }
+
+    private void flush() {
+        List<Entry> ready;
+        synchronized (this) {
+            ready = takeBatch();
+        }
+        if (!ready.isEmpty()) {
+            submit(ready);
+        }
+    }
+
+    private List<MapMatcherCallback> complete(Entry entry, double[] point) {
+        if (cache != null) {
+            return cache.complete(entry.key(), point);
+        }
+        return List.of(entry.callback());
+    }
+
+    private void submit(List<Entry> entries) {
+        List<double[]> points = new ArrayList<>(entries.size());
+        List<MapMatcherCallback> callbacks = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            points.add(new double[] {entry.latitude(), entry.longitude()});
+            callbacks.add(new MapMatcherCallback() {
+                @Override
+                public void onSuccess(double latitude, double longitude) {
+                    complete(entry, new double[] {latitude, longitude})
+                            .forEach(callback -> callback.onSuccess(latitude, longitude));
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    complete(entry, null).forEach(callback -> callback.onFailure(e));
+                }
+            });
+        }
+        mapMatcher.getPoints(points, callbacks);
+    }
+
+}
@@ -15,6 +15,8 @@
  */
 package org.traccar.mapmatcher;
 
+import java.util.List;
+
 public interface MapMatcher {
 
     interface MapMatcherCallback {
@@ -27,4 +29,14 @@ public interface MapMatcher {
 
     void getPoint(double latitude, double longitude, MapMatcherCallback callback);
 
+    /**
+     * Match several independent points. Each point is reported to the callback with the same index. Providers that
+     * support batch requests override it, by default each point is requested separately.
+     */
+    default void getPoints(List<double[]> points, List<MapMatcherCallback> callbacks) {
+        for (int i = 0; i < points.size(); i++) {
+            getPoint(points.get(i)[0], points.get(i)[1], callbacks.get(i));
+        }
+    }
+
 }
@@ -15,20 +15,76 @@
  */
 package org.traccar.mapmatcher;
 
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
 import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
 import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.client.InvocationCallback;
 
+import java.util.List;
+
 public class TraccarMapMatcher implements MapMatcher {
 
     private final Client client;
     private final String url;
     private final String key;
+    private final String batchUrl;
 
     public TraccarMapMatcher(Client client, String url, String key) {
+        this(client, url, key, null);
+    }
+
+    public TraccarMapMatcher(Client client, String url, String key, String batchUrl) {
         this.client = client;
         this.url = url != null ? url : "https://geocoder.traccar.org/snap";
         this.key = key;
+        this.batchUrl = batchUrl;
+    }
+
+    private static boolean hasPoint(JsonValue value) {
+        return value instanceof JsonObject json && json.containsKey("lat") && json.containsKey("lon");
+    }
+
+    @Override
+    public void getPoints(List<double[]> points, List<MapMatcherCallback> callbacks) {
+        if (batchUrl == null || points.size() == 1) {
+            MapMatcher.super.getPoints(points, callbacks);
+            return;
+        }
+
+        JsonArrayBuilder builder = Json.createArrayBuilder();
+        for (double[] point : points) {
+            builder.add(Json.createObjectBuilder().add("lat", point[0]).add("lon", point[1]));
+        }
+
+        var request = client
+                .target(batchUrl)
+                .queryParam("key", key)
+                .request();
+
+        request.async().post(Entity.json(builder.build()), new InvocationCallback<JsonArray>() {
+            @Override
+            public void completed(JsonArray json) {
+                for (int i = 0; i < callbacks.size(); i++) {
+                    if (i < json.size() && hasPoint(json.get(i))) {
+                        JsonObject point = json.getJsonObject(i);
+                        callbacks.get(i).onSuccess(
+                                point.getJsonNumber("lat").doubleValue(),
+                                point.getJsonNumber("lon").doubleValue());
+                    } else {
+                        callbacks.get(i).onFailure(new IllegalStateException("Empty map matcher response"));
+                    }
+                }
+            }
+
+            @Override
+            public void failed(Throwable throwable) {
+                callbacks.forEach(callback -> callback.onFailure(throwable));
+            }
+        });
     }
 
     @Override
@@ -37,6 +37,7 @@ import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.Temporal;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -44,6 +45,9 @@ import java.util.stream.Collectors;
 @StorageName("tc_calendars")
 public class Calendar extends ExtendedModel {
 
+    private static final long INDEX_LOOKBEHIND = Duration.ofDays(1).toMillis();
+    private static final long INDEX_HORIZON = Duration.ofDays(7).toMillis();
+
     private String name;
 
     public String getName() {
@@ -64,6 +68,7 @@ public class Calendar extends ExtendedModel {
         CalendarBuilder builder = new CalendarBuilder();
         calendar = builder.build(new ByteArrayInputStream(data));
         this.data = data;
+        index = null;
     }
 
     private net.fortuna.ical4j.model.Calendar calendar;
@@ -94,8 +99,88 @@ public class Calendar extends ExtendedModel {
         }
     }
 
+    /**
+     * Sorted, merged occurrences over a bounded time window. Boundaries hold every raw start and end, so moments that
+     * fall exactly on an edge can be delegated to ical4j and keep its intersection semantics.
+     */
+    private record IntervalIndex(long from, long to, long[] starts, long[] ends, long[] boundaries) {
+
+        boolean covers(long time) {
+            return time >= from && time < to;
+        }
+
+        boolean contains(long time) {
+            int position = Arrays.binarySearch(starts, time);
+            if (position < 0) {
+                position = -position - 2;
+            }
+            return position >= 0 && time < ends[position];
+        }
+
+    }
+
+    private volatile IntervalIndex index;
+
+    private IntervalIndex buildIndex(long time) {
+        long from = time - INDEX_LOOKBEHIND;
+        long to = time + INDEX_HORIZON;
+        Instant fromInstant = Instant.ofEpochMilli(from);
+        Instant toInstant = Instant.ofEpochMilli(to);
+
+        long[][] periods = calendar.<VEvent>getComponents(Component.VEVENT).stream()
+                .flatMap(event -> {
+                    Temporal sample = event.getDateTimeStart().getDate();
+                    ZoneId overrideZone = resolveOverrideZone(event);
+                    var period = new Period<>(
+                            convertToMatchingTemporal(fromInstant, sample, overrideZone),
+                            convertToMatchingTemporal(toInstant, sample, overrideZone));
+                    return event.calculateRecurrenceSet(period).stream()
+                            .map(p -> new long[] {
+                                    temporalToInstant(p.getStart(), overrideZone).toEpochMilli(),
+                                    temporalToInstant(p.getEnd(), overrideZone).toEpochMilli()});
+                })
+                .sorted((a, b) -> Long.compare(a[0], b[0]))
+                .toArray(long[][]::new);
+
+        long[] starts = new long[periods.length];
+        long[] ends = new long[periods.length];
+        long[] boundaries = new long[periods.length * 2];
+        int count = 0;
+        for (int i = 0; i < periods.length; i++) {
+            boundaries[i * 2] = periods[i][0];
+            boundaries[i * 2 + 1] = periods[i][1];
+            if (count > 0 && periods[i][0] <= ends[count - 1]) {
+                ends[count - 1] = Math.max(ends[count - 1], periods[i][1]);
+            } else {
+                starts[count] = periods[i][0];
+                ends[count] = periods[i][1];
+                count += 1;
+            }
+        }
+        Arrays.sort(boundaries);
+
+        return new IntervalIndex(from, to, Arrays.copyOf(starts, count), Arrays.copyOf(ends, count), boundaries);
+    }
+
     public boolean checkMoment(Date date) {
-        return !findPeriods(date).isEmpty();
+        if (calendar == null) {
+            return false;
+        }
+
+        long time = date.getTime();
+        IntervalIndex current = index;
+        if (current == null || !current.covers(time)) {
+            if (current != null && time < current.from()) {
+                return !findPeriods(date).isEmpty();
+            }
+            current = buildIndex(time);
+            index = current;
+        }
+
+        if (Arrays.binarySearch(current.boundaries(), time) >= 0) {
+            return !findPeriods(date).isEmpty();
+        }
+        return current.contains(time);
     }
 
     private static Temporal convertToMatchingTemporal(Instant instant, Temporal sample, ZoneId overrideZone) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2021 - 2025 Anton Tananaev (anton@traccar.org)
+ * Copyright 2021 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,18 +39,34 @@ import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.security.GeneralSecurityException;
+import java.util.Date;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Singleton
 public class TextTemplateFormatter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TextTemplateFormatter.class);
 
+    private static final long TOKEN_DURATION = TimeUnit.DAYS.toMillis(7);
+    private static final long TOKEN_RENEWAL = TimeUnit.DAYS.toMillis(1);
+
+    private static final DateTool DATE_TOOL = new DateTool();
+    private static final EscapeTool ESCAPE_TOOL = new EscapeTool();
+    private static final NumberTool NUMBER_TOOL = new NumberTool();
+
     private final VelocityEngine velocityEngine;
     private final TokenManager tokenManager;
     private final LocaleManager localeManager;
     private final String templatesRoot;
 
+    private record CachedToken(String token, long id, long expiration) {
+    }
+
+    private final Map<Long, CachedToken> tokens = new ConcurrentHashMap<>();
+
     @Inject
     public TextTemplateFormatter(
             VelocityEngine velocityEngine, TokenManager tokenManager, LocaleManager localeManager, Config config) {
@@ -60,6 +76,23 @@ public class TextTemplateFormatter {
         templatesRoot = config.getString(Keys.TEMPLATES_ROOT);
     }
 
+    /**
+     * Signing a token is expensive, so the same token is reused for all messages to a user until it gets close to
+     * expiration or is revoked.
+     */
+    private String getToken(long userId) throws IOException, GeneralSecurityException, StorageException {
+        long currentTime = System.currentTimeMillis();
+        CachedToken cached = tokens.get(userId);
+        if (cached == null || cached.expiration() - currentTime < TOKEN_RENEWAL
+                || tokenManager.isRevoked(cached.id())) {
+            Date expiration = new Date(currentTime + TOKEN_DURATION);
+            TokenManager.SignedToken token = tokenManager.signToken(userId, expiration);
+            cached = new CachedToken(token.token(), token.id(), expiration.getTime());
+            tokens.put(userId, cached);
+        }
+        return cached.token();
+    }
+
     public VelocityContext prepareContext(Server server, User user) {
 
         VelocityContext velocityContext = new VelocityContext();
@@ -68,16 +101,16 @@ public class TextTemplateFormatter {
             velocityContext.put("user", user);
             velocityContext.put("timezone", UserUtil.getTimezone(server, user));
             try {
-                velocityContext.put("token", tokenManager.generateToken(user.getId()));
+                velocityContext.put("token", getToken(user.getId()));
             } catch (IOException | GeneralSecurityException | StorageException e) {
                 LOGGER.warn("Token generation failed", e);
             }
         }
 
         velocityContext.put("webUrl", velocityEngine.getProperty("web.url"));
-        velocityContext.put("dateTool", new DateTool());
-        velocityContext.put("esc", new EscapeTool());
-        velocityContext.put("numberTool", new NumberTool());
+        velocityContext.put("dateTool", DATE_TOOL);
+        velocityContext.put("esc", ESCAPE_TOOL);
+        velocityContext.put("numberTool", NUMBER_TOOL);
         velocityContext.put("locale", Locale.getDefault());
         velocityContext.put("language", UserUtil.getLanguage(server, user));
 
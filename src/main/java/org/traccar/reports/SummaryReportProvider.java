@@ -20,6 +20,7 @@ import org.jxls.util.JxlsHelper;
 import org.traccar.api.security.PermissionsService;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
+import org.traccar.database.PositionSummaryManager;
 import org.traccar.helper.UnitsConverter;
 import org.traccar.helper.model.AttributeUtil;
 import org.traccar.helper.model.DeviceUtil;
@@ -27,11 +28,15 @@ import org.traccar.helper.model.PositionUtil;
 import org.traccar.helper.model.UserUtil;
 import org.traccar.model.Device;
 import org.traccar.model.Position;
+import org.traccar.model.PositionSummary;
 import org.traccar.reports.common.ReportUtils;
 import org.traccar.reports.common.TripsConfig;
 import org.traccar.reports.model.SummaryReportItem;
 import org.traccar.storage.Storage;
 import org.traccar.storage.StorageException;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Request;
 
 import jakarta.inject.Inject;
 import java.io.File;
@@ -55,39 +60,141 @@ public class SummaryReportProvider {
     private final PermissionsService permissionsService;
     private final Storage storage;
 
+    private final PositionSummaryManager positionSummaryManager;
+
     @Inject
     public SummaryReportProvider(
-            Config config, ReportUtils reportUtils, PermissionsService permissionsService, Storage storage) {
+            Config config, ReportUtils reportUtils, PermissionsService permissionsService, Storage storage,
+            PositionSummaryManager positionSummaryManager) {
         this.config = config;
         this.reportUtils = reportUtils;
         this.permissionsService = permissionsService;
         this.storage = storage;
+        this.positionSummaryManager = positionSummaryManager;
     }
 
-    private Collection<SummaryReportItem> calculateDeviceResult(
-            Device device, Date from, Date to, boolean fast) throws StorageException {
+    private static final class PositionAccumulator {
 
-        SummaryReportItem result = new SummaryReportItem();
-        result.setDeviceId(device.getId());
-        result.setDeviceName(device.getName());
+        private Position first;
+        private long firstPositionId;
+        private Position last;
+        private long lastPositionId;
+        private double maxSpeed;
+
+        private boolean isEmpty() {
+            return first == null && firstPositionId == 0;
+        }
 
-        Position first = null;
-        Position last = null;
+        private void add(Position position, boolean speed) {
+            if (isEmpty()) {
+                first = position;
+            }
+            last = position;
+            lastPositionId = 0;
+            if (speed) {
+                maxSpeed = Math.max(maxSpeed, position.getSpeed());
+            }
+        }
+
+        private void add(PositionSummary summary) {
+            if (summary.hasPositions()) {
+                if (isEmpty()) {
+                    firstPositionId = summary.getFirstPositionId();
+                }
+                last = null;
+                lastPositionId = summary.getLastPositionId();
+                maxSpeed = Math.max(maxSpeed, summary.getMaxSpeed());
+            }
+        }
+
+    }
+
+    private void readPositions(
+            PositionAccumulator accumulator, long deviceId, Date from, Date to, boolean fast) throws StorageException {
         if (fast) {
-            first = PositionUtil.getEdgePosition(storage, device.getId(), from, to, false);
-            last = PositionUtil.getEdgePosition(storage, device.getId(), from, to, true);
+            Position first = PositionUtil.getEdgePosition(storage, deviceId, from, to, false);
+            Position last = PositionUtil.getEdgePosition(storage, deviceId, from, to, true);
+            if (first != null && last != null) {
+                accumulator.add(first, false);
+                accumulator.add(last, false);
+            }
         } else {
-            var positions = PositionUtil.getPositions(storage, device.getId(), from, to);
-            for (Position position : positions) {
-                if (first == null) {
-                    first = position;
-                }
-                if (position.getSpeed() > result.getMaxSpeed()) {
-                    result.setMaxSpeed(position.getSpeed());
+            try (var positions = PositionUtil.getPositionsStream(storage, deviceId, from, to)) {
+                var iterator = positions.iterator();
+                while (iterator.hasNext()) {
+                    accumulator.add(iterator.next(), true);
                 }
-                last = position;
             }
         }
+    }
+
+    private Position getPosition(long positionId) throws StorageException {
+        return storage.getObject(Position.class, new Request(
+                new Columns.All(), new Condition.Equals("id", positionId)));
+    }
+
+    /**
+     * Combine stored hourly summaries with raw positions for the parts of the period they don't cover. Uncovered parts
+     * shorter than a summary period are always read in full, so the maximum speed stays accurate. A period that
+     * ends on a summarised hour boundary excludes positions at exactly the end time. Returns false if a summarised
+     * position no longer exists, in which case the caller has to use raw positions only.
+     */
+    private boolean readSummaries(
+            PositionAccumulator accumulator, long deviceId, Date from, Date to, boolean fast,
+            List<PositionSummary> summaries) throws StorageException {
+        long cursor = from.getTime();
+        for (PositionSummary summary : summaries) {
+            long periodStart = summary.getPeriodStart().getTime();
+            long periodEnd = summary.getPeriodEnd().getTime();
+            long start = Math.max(periodStart, from.getTime());
+            if (start < cursor || periodEnd <= start || start >= to.getTime()) {
+                continue;
+            }
+            if (summary.hasPositions() && (periodStart < from.getTime() || periodEnd > to.getTime())) {
+                continue;
+            }
+            if (start > cursor) {
+                readPositions(accumulator, deviceId, new Date(cursor), new Date(start),
+                        fast && start - cursor > PositionSummaryManager.PERIOD);
+            }
+            accumulator.add(summary);
+            cursor = Math.min(periodEnd, to.getTime());
+        }
+        if (cursor < to.getTime()) {
+            readPositions(accumulator, deviceId, new Date(cursor), to,
+                    fast && to.getTime() - cursor > PositionSummaryManager.PERIOD);
+        }
+
+        if (accumulator.first == null && accumulator.firstPositionId != 0) {
+            accumulator.first = getPosition(accumulator.firstPositionId);
+            if (accumulator.first == null) {
+                return false;
+            }
+        }
+        if (accumulator.last == null && accumulator.lastPositionId != 0) {
+            accumulator.last = getPosition(accumulator.lastPositionId);
+            if (accumulator.last == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Collection<SummaryReportItem> calculateDeviceResult(
+            Device device, Date from, Date to, boolean fast, List<PositionSummary> summaries) throws StorageException {
+
+        SummaryReportItem result = new SummaryReportItem();
+        result.setDeviceId(device.getId());
+        result.setDeviceName(device.getName());
+
+        PositionAccumulator accumulator = new PositionAccumulator();
+        if (summaries == null || !readSummaries(accumulator, device.getId(), from, to, fast, summaries)) {
+            accumulator = new PositionAccumulator();
+            readPositions(accumulator, device.getId(), from, to, fast);
+        }
+        Position first = accumulator.first;
+        Position last = accumulator.last;
+        result.setMaxSpeed(accumulator.maxSpeed);
 
         if (first != null && last != null) {
             TripsConfig tripsConfig = new TripsConfig(
@@ -122,21 +229,52 @@ public class SummaryReportProvider {
         return List.of();
     }
 
+    private static List<PositionSummary> getSummaries(List<PositionSummary> summaries, Date from, Date to) {
+        if (summaries == null) {
+            return null;
+        }
+        int start = 0;
+        int high = summaries.size();
+        while (start < high) {
+            int middle = (start + high) >>> 1;
+            if (summaries.get(middle).getPeriodEnd().after(from)) {
+                high = middle;
+            } else {
+                start = middle + 1;
+            }
+        }
+        int end = start;
+        while (end < summaries.size() && summaries.get(end).getPeriodStart().before(to)) {
+            end += 1;
+        }
+        return summaries.subList(start, end);
+    }
+
     private Collection<SummaryReportItem> calculateDeviceResults(
             Device device, ZonedDateTime from, ZonedDateTime to, boolean daily) throws StorageException {
 
         boolean fast = Duration.between(from, to).toSeconds() > config.getLong(Keys.REPORT_FAST_THRESHOLD);
+        List<PositionSummary> summaries = null;
+        if (config.getBoolean(Keys.REPORT_SUMMARY_ROLLUP)) {
+            summaries = positionSummaryManager.getSummaries(
+                    device.getId(), Date.from(from.toInstant()), Date.from(to.toInstant()));
+        }
         var results = new ArrayList<SummaryReportItem>();
         if (daily) {
             while (from.truncatedTo(ChronoUnit.DAYS).isBefore(to.truncatedTo(ChronoUnit.DAYS))) {
                 ZonedDateTime fromDay = from.truncatedTo(ChronoUnit.DAYS);
                 ZonedDateTime nextDay = fromDay.plusDays(1);
+                Date dayFrom = Date.from(from.toInstant());
+                Date dayTo = Date.from(nextDay.toInstant());
                 results.addAll(calculateDeviceResult(
-                        device, Date.from(from.toInstant()), Date.from(nextDay.toInstant()), fast));
+                        device, dayFrom, dayTo, fast, getSummaries(summaries, dayFrom, dayTo)));
                 from = nextDay;
             }
         }
-        results.addAll(calculateDeviceResult(device, Date.from(from.toInstant()), Date.from(to.toInstant()), fast));
+        Date lastFrom = Date.from(from.toInstant());
+        Date lastTo = Date.from(to.toInstant());
+        results.addAll(calculateDeviceResult(
+                device, lastFrom, lastTo, fast, getSummaries(summaries, lastFrom, lastTo)));
         return results;
     }
 
@@ -148,9 +286,9 @@ public class SummaryReportProvider {
         var tz = UserUtil.getTimezone(permissionsService.getServer(), permissionsService.getUser(userId)).toZoneId();
 
         ArrayList<SummaryReportItem> result = new ArrayList<>();
-        for (Device device: DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds)) {
-            var deviceResults = calculateDeviceResults(
-                    device, from.toInstant().atZone(tz), to.toInstant().atZone(tz), daily);
+        var devices = DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds);
+        for (var deviceResults : reportUtils.computeForDevices(devices, device -> calculateDeviceResults(
+                device, from.toInstant().atZone(tz), to.toInstant().atZone(tz), daily))) {
             for (SummaryReportItem summaryReport : deviceResults) {
                 if (summaryReport.getStartTime() != null && summaryReport.getEndTime() != null) {
                     result.add(summaryReport);
@@ -34,21 +34,19 @@ import org.traccar.config.Keys;
 import org.traccar.geocoder.Geocoder;
 import org.traccar.helper.UnitsConverter;
 import org.traccar.helper.model.AttributeUtil;
+import org.traccar.helper.model.MotionSegmentUtil;
 import org.traccar.helper.model.PositionUtil;
 import org.traccar.helper.model.UserUtil;
 import org.traccar.model.BaseModel;
 import org.traccar.model.Device;
 import org.traccar.model.Driver;
 import org.traccar.model.Event;
+import org.traccar.model.MotionSegment;
 import org.traccar.model.Position;
 import org.traccar.model.User;
 import org.traccar.reports.model.BaseReportItem;
 import org.traccar.reports.model.StopReportItem;
 import org.traccar.reports.model.TripReportItem;
-import org.traccar.session.state.MotionProcessor;
-import org.traccar.session.state.MotionState;
-import org.traccar.session.state.NewMotionProcessor;
-import org.traccar.session.state.NewMotionState;
 import org.traccar.storage.Storage;
 import org.traccar.storage.StorageException;
 import org.traccar.storage.query.Columns;
@@ -60,14 +58,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.time.Duration;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
-import java.util.Deque;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 public class ReportUtils {
 
@@ -107,6 +107,60 @@ public class ReportUtils {
         }
     }
 
+    public interface DeviceTask<T> {
+        T compute(Device device) throws StorageException;
+    }
+
+    /**
+     * Run report work for each device, using up to 'report.parallelism' virtual threads. Results are returned in the
+     * order of the provided devices regardless of completion order. At most half of the database connections are
+     * used, so a task can still run a nested query and live processing is not starved.
+     */
+    public <T> List<T> computeForDevices(Collection<Device> devices, DeviceTask<T> task) throws StorageException {
+        int parallelism = Math.min(
+                config.getInteger(Keys.REPORT_PARALLELISM), config.getInteger(Keys.DATABASE_MAX_POOL_SIZE) / 2);
+        List<T> result = new ArrayList<>(devices.size());
+        if (parallelism <= 1 || devices.size() <= 1) {
+            for (Device device : devices) {
+                result.add(task.compute(device));
+            }
+            return result;
+        }
+
+        Semaphore semaphore = new Semaphore(parallelism);
+        List<Future<T>> futures = new ArrayList<>(devices.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Device device : devices) {
+                futures.add(executor.submit(() -> {
+                    semaphore.acquire();
+                    try {
+                        return task.compute(device);
+                    } finally {
+                        semaphore.release();
+                    }
+                }));
+            }
+            try {
+                for (Future<T> future : futures) {
+                    result.add(future.get());
+                }
+            } catch (ExecutionException e) {
+                futures.forEach(future -> future.cancel(true));
+                if (e.getCause() instanceof StorageException storageException) {
+                    throw storageException;
+                } else if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new StorageException(e.getCause());
+            } catch (InterruptedException e) {
+                futures.forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new StorageException(e);
+            }
+        }
+        return result;
+    }
+
     public double calculateFuel(Position first, Position last, Device device) {
         if (first.hasAttribute(Position.KEY_FUEL_USED) && last.hasAttribute(Position.KEY_FUEL_USED)) {
             return last.getDouble(Position.KEY_FUEL_USED) - first.getDouble(Position.KEY_FUEL_USED);
@@ -284,6 +338,18 @@ public class ReportUtils {
     public <T extends BaseReportItem> List<T> detectTripsAndStops(
             Device device, Date from, Date to, Class<T> reportClass) throws StorageException {
 
+        if (config.getBoolean(Keys.REPORT_TRIP_STORE)) {
+            List<T> result = storedTripsAndStops(device, from, to, reportClass);
+            if (result != null) {
+                return result;
+            }
+        }
+        return computeTripsAndStops(device, from, to, reportClass);
+    }
+
+    private <T extends BaseReportItem> List<T> computeTripsAndStops(
+            Device device, Date from, Date to, Class<T> reportClass) throws StorageException {
+
         long threshold = config.getLong(Keys.REPORT_FAST_THRESHOLD);
         if (Duration.between(from.toInstant(), to.toInstant()).toSeconds() > threshold) {
             return fastTripsAndStops(device, from, to, reportClass);
@@ -292,104 +358,114 @@ public class ReportUtils {
         }
     }
 
-    public <T extends BaseReportItem> List<T> slowTripsAndStops(
+    private <T extends BaseReportItem> void addEdgeTripsAndStops(List<T> items, List<T> result) {
+        for (T item : items) {
+            if (item.getEndTime().after(item.getStartTime())) {
+                result.add(item);
+            }
+        }
+    }
+
+    /**
+     * Build the report from segments stored by the motion event handler. Only the edges of the period that are not
+     * covered by stored segments are detected from positions. Returns null if the stored segments can't be used, for
+     * example because the configuration changed or the chain of segments is broken.
+     */
+    public <T extends BaseReportItem> List<T> storedTripsAndStops(
             Device device, Date from, Date to, Class<T> reportClass) throws StorageException {
 
-        List<T> result = new ArrayList<>();
         var attributeProvider = new AttributeUtil.StorageProvider(config, storage, permissionsService, device);
-        TripsConfig tripsConfig = new TripsConfig(attributeProvider);
-        boolean ignoreOdometer = tripsConfig.getIgnoreOdometer();
+        String tripsConfigKey = MotionSegmentUtil.getTripsConfig(config, attributeProvider);
+        boolean ignoreOdometer = new TripsConfig(attributeProvider).getIgnoreOdometer();
         boolean trips = reportClass.equals(TripReportItem.class);
-        boolean useNewLogic = config.getBoolean(Keys.REPORT_TRIP_NEW_LOGIC);
-
-        List<Event> events = new ArrayList<>();
-        Map<Long, Position> positionMap = new HashMap<>();
-        Position startPosition = null;
-        double maxSpeed = 0;
-        var positions = PositionUtil.getPositions(storage, device.getId(), from, to);
-        if (!positions.isEmpty()) {
-            boolean initialValue = positions.getFirst().getBoolean(Position.KEY_MOTION);
-            if (initialValue == trips) {
-                startPosition = positions.getFirst();
-                maxSpeed = startPosition.getSpeed();
+
+        List<MotionSegment> segments = MotionSegmentUtil.getSegments(storage, device.getId(), from, to);
+        if (segments.isEmpty()) {
+            return null;
+        }
+        MotionSegment previous = null;
+        for (MotionSegment segment : segments) {
+            if (!tripsConfigKey.equals(segment.getTripsConfig())) {
+                return null;
             }
+            if (previous != null && previous.getEndPositionId() != segment.getStartPositionId()) {
+                return null;
+            }
+            previous = segment;
+        }
 
-            if (useNewLogic) {
-                double minDistance = AttributeUtil.lookup(attributeProvider, Keys.REPORT_TRIP_MIN_DISTANCE);
-                long minDuration = AttributeUtil.lookup(attributeProvider, Keys.REPORT_TRIP_MIN_DURATION) * 1000;
-                long stopGap = AttributeUtil.lookup(attributeProvider, Keys.REPORT_TRIP_STOP_GAP) * 1000;
-                Deque<Position> motionPositions = new ArrayDeque<>();
-                NewMotionState motionState = new NewMotionState();
-                motionState.setPositions(motionPositions);
-                motionState.setMotionStreak(initialValue);
-                motionState.setEventPosition(positions.getFirst());
-
-                for (Position position : positions) {
-                    maxSpeed = Math.max(maxSpeed, position.getSpeed());
-                    positionMap.put(position.getId(), position);
-                    NewMotionProcessor.updateState(motionState, position, minDistance, minDuration, stopGap);
-                    if (!motionState.getEvents().isEmpty()) {
-                        for (Event event : motionState.getEvents()) {
-                            event.set("maxSpeed", maxSpeed);
-                            events.add(event);
-                        }
-                        maxSpeed = 0;
-                    }
-                    motionPositions.add(position);
-                    while (motionPositions.size() > 1) {
-                        var iterator = motionPositions.iterator();
-                        iterator.next();
-                        Position second = iterator.next();
-                        Position last = motionPositions.peekLast();
-                        if (last.getFixTime().getTime() - second.getFixTime().getTime() >= minDuration) {
-                            motionPositions.poll();
-                        } else {
-                            break;
-                        }
-                    }
-                }
-            } else {
-                MotionState motionState = new MotionState();
-                motionState.setMotionStreak(initialValue);
-                motionState.setMotionState(initialValue);
-
-                for (int i = 0; i < positions.size(); i++) {
-                    Position last = i > 0 ? positions.get(i - 1) : null;
-                    Position position = positions.get(i);
-                    maxSpeed = Math.max(maxSpeed, position.getSpeed());
-                    positionMap.put(position.getId(), position);
-                    boolean motion = position.getBoolean(Position.KEY_MOTION);
-                    MotionProcessor.updateState(motionState, last, positions.get(i), motion, tripsConfig);
-                    if (motionState.getEvent() != null) {
-                        motionState.getEvent().set("maxSpeed", maxSpeed);
-                        events.add(motionState.getEvent());
-                        maxSpeed = 0;
-                    }
+        List<T> result = new ArrayList<>();
+        Date start = segments.getFirst().getStartTime();
+        if (from.before(start)) {
+            addEdgeTripsAndStops(computeTripsAndStops(device, from, start, reportClass), result);
+        }
+        for (MotionSegment segment : segments) {
+            if (segment.getMotion() == trips) {
+                Position startPosition = getPosition(device, segment.getStartPositionId());
+                Position endPosition = getPosition(device, segment.getEndPositionId());
+                if (startPosition == null || endPosition == null) {
+                    return null;
                 }
+                result.add(calculateTripOrStop(
+                        device, startPosition, endPosition, segment.getMaxSpeed(), ignoreOdometer, reportClass));
             }
         }
+        Date end = segments.getLast().getEndTime();
+        if (to.after(end)) {
+            addEdgeTripsAndStops(computeTripsAndStops(device, end, to, reportClass), result);
+        }
 
-        for (Event event : events) {
-            boolean motion = event.getType().equals(Event.TYPE_DEVICE_MOVING);
-            if (motion == trips) {
-                startPosition = positionMap.get(event.getPositionId());
-            } else if (startPosition != null) {
-                Position endPosition = positionMap.get(event.getPositionId());
-                if (endPosition != null) {
-                    result.add(calculateTripOrStop(
-                            device, startPosition, endPosition,
-                            event.getDouble("maxSpeed"), ignoreOdometer, reportClass));
-                }
-                startPosition = null;
+        return result;
+    }
+
+    private Position getPosition(Device device, long positionId) throws StorageException {
+        return storage.getObject(Position.class, new Request(
+                new Columns.All(),
+                new Condition.And(
+                        new Condition.Equals("deviceId", device.getId()),
+                        new Condition.Equals("id", positionId))));
+    }
+
+    private record DetectedSegment(Position start, Position end, double maxSpeed) {
+    }
+
+    public <T extends BaseReportItem> List<T> slowTripsAndStops(
+            Device device, Date from, Date to, Class<T> reportClass) throws StorageException {
+
+        List<DetectedSegment> segments = new ArrayList<>();
+        var attributeProvider = new AttributeUtil.StorageProvider(config, storage, permissionsService, device);
+        TripsConfig tripsConfig = new TripsConfig(attributeProvider);
+        boolean ignoreOdometer = tripsConfig.getIgnoreOdometer();
+        boolean trips = reportClass.equals(TripReportItem.class);
+
+        // driver and address lookups run after the stream is closed, so they don't need a second connection
+        TripsAndStopsDetector.Handler handler = (start, end, maxSpeed) -> segments.add(
+                new DetectedSegment(start, end, maxSpeed));
+        TripsAndStopsDetector detector;
+        if (config.getBoolean(Keys.REPORT_TRIP_NEW_LOGIC)) {
+            detector = new TripsAndStopsDetector(
+                    tripsConfig, trips, true,
+                    AttributeUtil.lookup(attributeProvider, Keys.REPORT_TRIP_MIN_DISTANCE),
+                    AttributeUtil.lookup(attributeProvider, Keys.REPORT_TRIP_MIN_DURATION) * 1000,
+                    AttributeUtil.lookup(attributeProvider, Keys.REPORT_TRIP_STOP_GAP) * 1000,
+                    handler);
+        } else {
+            detector = new TripsAndStopsDetector(tripsConfig, trips, handler);
+        }
+
+        try (var positions = PositionUtil.getPositionsStream(storage, device.getId(), from, to)) {
+            var iterator = positions.iterator();
+            while (iterator.hasNext()) {
+                detector.process(iterator.next());
             }
         }
+        detector.finish();
 
-        if (startPosition != null) {
-            Position endPosition = positions.getLast();
+        List<T> result = new ArrayList<>(segments.size());
+        for (DetectedSegment segment : segments) {
             result.add(calculateTripOrStop(
-                    device, startPosition, endPosition, maxSpeed, ignoreOdometer, reportClass));
+                    device, segment.start(), segment.end(), segment.maxSpeed(), ignoreOdometer, reportClass));
         }
-
         return result;
     }
 
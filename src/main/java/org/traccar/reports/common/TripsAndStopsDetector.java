@@ -0,0 +1,178 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.reports.common;
+
+import org.traccar.model.Event;
+import org.traccar.model.Position;
+import org.traccar.session.state.MotionProcessor;
+import org.traccar.session.state.MotionState;
+import org.traccar.session.state.NewMotionProcessor;
+import org.traccar.session.state.NewMotionState;
+import org.traccar.storage.StorageException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Single pass trip and stop detection. Positions are pushed one at a time and completed segments are reported
+ * immediately, so memory use does not depend on the number of positions. Only the positions that motion events can
+ * still refer to are retained: the previous position, the pending motion candidate and, for the new motion logic,
+ * the minimum duration window.
+ */
+public class TripsAndStopsDetector {
+
+    public interface Handler {
+        void onSegment(Position start, Position end, double maxSpeed) throws StorageException;
+    }
+
+    private final TripsConfig tripsConfig;
+    private final boolean trips;
+    private final boolean useNewLogic;
+    private final double minDistance;
+    private final long minDuration;
+    private final long stopGap;
+    private final Handler handler;
+
+    private Position startPosition;
+    private Position lastPosition;
+    private double maxSpeed;
+
+    private MotionState motionState;
+    private Position motionPosition;
+
+    private NewMotionState newMotionState;
+    private Deque<Position> motionPositions;
+
+    public TripsAndStopsDetector(TripsConfig tripsConfig, boolean trips, Handler handler) {
+        this(tripsConfig, trips, false, 0, 0, 0, handler);
+    }
+
+    public TripsAndStopsDetector(
+            TripsConfig tripsConfig, boolean trips, boolean useNewLogic,
+            double minDistance, long minDuration, long stopGap, Handler handler) {
+        this.tripsConfig = tripsConfig;
+        this.trips = trips;
+        this.useNewLogic = useNewLogic;
+        this.minDistance = minDistance;
+        this.minDuration = minDuration;
+        this.stopGap = stopGap;
+        this.handler = handler;
+    }
+
+    private void initialize(Position first) {
+        boolean initialValue = first.getBoolean(Position.KEY_MOTION);
+        if (initialValue == trips) {
+            startPosition = first;
+            maxSpeed = first.getSpeed();
+        }
+        if (useNewLogic) {
+            motionPositions = new ArrayDeque<>();
+            newMotionState = new NewMotionState();
+            newMotionState.setPositions(motionPositions);
+            newMotionState.setMotionStreak(initialValue);
+            newMotionState.setEventPosition(first);
+        } else {
+            motionState = new MotionState();
+            motionState.setMotionStreak(initialValue);
+            motionState.setMotionState(initialValue);
+        }
+    }
+
+    public void process(Position position) throws StorageException {
+        if (lastPosition == null) {
+            initialize(position);
+        }
+
+        maxSpeed = Math.max(maxSpeed, position.getSpeed());
+
+        if (useNewLogic) {
+            NewMotionProcessor.updateState(newMotionState, position, minDistance, minDuration, stopGap);
+            handleEvents(newMotionState.getEvents(), position);
+            motionPositions.add(position);
+            while (motionPositions.size() > 1) {
+                var iterator = motionPositions.iterator();
+                iterator.next();
+                Position second = iterator.next();
+                if (position.getFixTime().getTime() - second.getFixTime().getTime() >= minDuration) {
+                    motionPositions.poll();
+                } else {
+                    break;
+                }
+            }
+        } else {
+            boolean motion = position.getBoolean(Position.KEY_MOTION);
+            MotionProcessor.updateState(motionState, lastPosition, position, motion, tripsConfig);
+            if (motionState.getEvent() != null) {
+                handleEvents(List.of(motionState.getEvent()), position);
+            }
+            if (motionState.getMotionPositionId() == position.getId()) {
+                motionPosition = position;
+            }
+        }
+
+        lastPosition = position;
+    }
+
+    public void finish() throws StorageException {
+        if (startPosition != null) {
+            handler.onSegment(startPosition, lastPosition, maxSpeed);
+            startPosition = null;
+        }
+    }
+
+    private void handleEvents(List<Event> events, Position position) throws StorageException {
+        if (events.isEmpty()) {
+            return;
+        }
+        double eventMaxSpeed = maxSpeed;
+        maxSpeed = 0;
+        for (Event event : events) {
+            boolean motion = event.getType().equals(Event.TYPE_DEVICE_MOVING);
+            if (motion == trips) {
+                startPosition = findPosition(event.getPositionId(), position);
+            } else if (startPosition != null) {
+                Position endPosition = findPosition(event.getPositionId(), position);
+                if (endPosition != null) {
+                    handler.onSegment(startPosition, endPosition, eventMaxSpeed);
+                }
+                startPosition = null;
+            }
+        }
+    }
+
+    private Position findPosition(long positionId, Position position) {
+        if (position.getId() == positionId) {
+            return position;
+        }
+        if (lastPosition != null && lastPosition.getId() == positionId) {
+            return lastPosition;
+        }
+        if (motionPosition != null && motionPosition.getId() == positionId) {
+            return motionPosition;
+        }
+        if (motionPositions != null) {
+            for (var iterator = motionPositions.descendingIterator(); iterator.hasNext();) {
+                Position candidate = iterator.next();
+                if (candidate.getId() == positionId) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+}
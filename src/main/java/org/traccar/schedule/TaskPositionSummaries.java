@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.schedule;
+
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.PositionSummaryManager;
+import org.traccar.model.Device;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Request;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class TaskPositionSummaries implements ScheduleTask {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskPositionSummaries.class);
+
+    private static final long CHECK_PERIOD_MINUTES = 10;
+
+    private final Storage storage;
+    private final PositionSummaryManager positionSummaryManager;
+    private final boolean enabled;
+    private final boolean secondary;
+
+    @Inject
+    public TaskPositionSummaries(Config config, Storage storage, PositionSummaryManager positionSummaryManager) {
+        this.storage = storage;
+        this.positionSummaryManager = positionSummaryManager;
+        enabled = config.getBoolean(Keys.REPORT_SUMMARY_ROLLUP);
+        secondary = config.getBoolean(Keys.BROADCAST_SECONDARY);
+    }
+
+    @Override
+    public void schedule(ScheduledExecutorService executor) {
+        if (enabled) {
+            executor.scheduleAtFixedRate(this, 1, CHECK_PERIOD_MINUTES, TimeUnit.MINUTES);
+        }
+    }
+
+    @Override
+    public void run() {
+        positionSummaryManager.flush();
+        if (!secondary) {
+            try {
+                for (Device device : storage.getObjects(Device.class, new Request(new Columns.Include("id")))) {
+                    positionSummaryManager.backfill(device.getId());
+                }
+            } catch (StorageException e) {
+                LOGGER.warn("Position summaries backfill failed", e);
+            }
+        }
+    }
+
+}
@@ -25,6 +25,7 @@ import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.database.DeviceLookupService;
 import org.traccar.database.NotificationManager;
+import org.traccar.database.StatisticsManager;
 import org.traccar.model.BaseModel;
 import org.traccar.model.Device;
 import org.traccar.model.Event;
@@ -43,16 +44,15 @@ import jakarta.inject.Singleton;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 @Singleton
 public class ConnectionManager implements BroadcastInterface {
@@ -77,15 +77,19 @@ public class ConnectionManager implements BroadcastInterface {
     private final BroadcastService broadcastService;
     private final DeviceLookupService deviceLookupService;
 
-    private final Map<Long, Set<UpdateListener>> listeners = new HashMap<>();
-    private final Map<Long, Set<Long>> userDevices = new HashMap<>();
-    private final Map<Long, Set<Long>> deviceUsers = new HashMap<>();
+    private final Executor updateExecutor;
+    private final int updateQueueLimit;
+    private final UpdateSubscription.Statistics updateStatistics = new UpdateSubscription.Statistics();
+
+    private final Map<Long, Map<UpdateListener, UpdateSubscription>> listeners = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> userDevices = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> deviceUsers = new ConcurrentHashMap<>();
 
     @Inject
     public ConnectionManager(
             Config config, CacheManager cacheManager, Storage storage,
             NotificationManager notificationManager, BroadcastService broadcastService,
-            DeviceLookupService deviceLookupService) {
+            DeviceLookupService deviceLookupService, StatisticsManager statisticsManager) {
         this.config = config;
         this.cacheManager = cacheManager;
         this.storage = storage;
@@ -95,9 +99,22 @@ public class ConnectionManager implements BroadcastInterface {
         deviceTimeout = config.getLong(Keys.STATUS_TIMEOUT);
         showUnknownDevices = config.getBoolean(Keys.WEB_SHOW_UNKNOWN_DEVICES);
         statusEventsEnabled = config.getBoolean(Keys.EVENT_STATUS_ENABLE);
+        updateQueueLimit = config.getInteger(Keys.WEB_UPDATE_QUEUE_LIMIT);
+        updateExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "ConnectionManager");
+            thread.setDaemon(true);
+            return thread;
+        });
+        statisticsManager.registerGauge("updateLatency", updateStatistics::drainLatency);
+        statisticsManager.registerGauge("droppedUpdates", updateStatistics::drainDropped);
         broadcastService.registerListener(this);
     }
 
+    private Collection<UpdateSubscription> getSubscriptions(long userId) {
+        var subscriptions = listeners.get(userId);
+        return subscriptions != null ? subscriptions.values() : Collections.emptyList();
+    }
+
     public void sweepIdleSessions() {
         long cutoff = System.currentTimeMillis() - deviceTimeout * 1000;
         for (var entry : lastSeenByDeviceId.entrySet()) {
@@ -289,56 +306,45 @@ public class ConnectionManager implements BroadcastInterface {
         updateDevice(true, device);
     }
 
-    public synchronized void sendKeepalive() {
-        for (Set<UpdateListener> userListeners : listeners.values()) {
-            for (UpdateListener listener : userListeners) {
-                listener.onKeepalive();
-            }
+    public void sendKeepalive() {
+        for (var subscriptions : listeners.values()) {
+            subscriptions.values().forEach(UpdateSubscription::offerKeepalive);
         }
     }
 
     @Override
-    public synchronized void updateDevice(boolean local, Device device) {
+    public void updateDevice(boolean local, Device device) {
         if (local) {
             broadcastService.updateDevice(true, device);
         } else if (Device.STATUS_ONLINE.equals(device.getStatus())) {
             removeDeviceSession(device.getId());
         }
         for (long userId : deviceUsers.getOrDefault(device.getId(), Collections.emptySet())) {
-            Set<UpdateListener> userListeners = listeners.get(userId);
-            if (userListeners != null) {
-                for (UpdateListener listener : userListeners) {
-                    listener.onUpdateDevice(device);
-                }
+            for (UpdateSubscription subscription : getSubscriptions(userId)) {
+                subscription.offerDevice(device);
             }
         }
     }
 
     @Override
-    public synchronized void updatePosition(boolean local, Position position) {
+    public void updatePosition(boolean local, Position position) {
         if (local) {
             broadcastService.updatePosition(true, position);
         }
         for (long userId : deviceUsers.getOrDefault(position.getDeviceId(), Collections.emptySet())) {
-            Set<UpdateListener> userListeners = listeners.get(userId);
-            if (userListeners != null) {
-                for (UpdateListener listener : userListeners) {
-                    listener.onUpdatePosition(position);
-                }
+            for (UpdateSubscription subscription : getSubscriptions(userId)) {
+                subscription.offerPosition(position);
             }
         }
     }
 
     @Override
-    public synchronized void updateEvent(boolean local, long userId, Event event) {
+    public void updateEvent(boolean local, long userId, Event event) {
         if (local) {
             broadcastService.updateEvent(true, userId, event);
         }
-        Set<UpdateListener> userListeners = listeners.get(userId);
-        if (userListeners != null) {
-            for (UpdateListener listener : userListeners) {
-                listener.onUpdateEvent(event);
-            }
+        for (UpdateSubscription subscription : getSubscriptions(userId)) {
+            subscription.offerEvent(event);
         }
     }
 
@@ -348,28 +354,28 @@ public class ConnectionManager implements BroadcastInterface {
         if (link && clazz1.equals(User.class) && clazz2.equals(Device.class)) {
             if (listeners.containsKey(id1)) {
                 userDevices.get(id1).add(id2);
-                deviceUsers.put(id2, new HashSet<>(List.of(id1)));
+                deviceUsers.computeIfAbsent(id2, id -> ConcurrentHashMap.newKeySet()).add(id1);
             }
         }
     }
 
-    public synchronized void updateLog(LogRecord record) {
+    public void updateLog(LogRecord record) {
         var sessions = sessionsByEndpoint.getOrDefault(record.getConnectionKey(), Map.of());
         if (sessions.isEmpty()) {
             UnknownEntry unknown = unknownByEndpoint.get(record.getConnectionKey());
             if (unknown != null && showUnknownDevices) {
                 record.setUniqueId(unknown.uniqueId());
-                listeners.values().stream()
-                        .flatMap(Set::stream)
-                        .forEach((listener) -> listener.onUpdateLog(record));
+                for (var subscriptions : listeners.values()) {
+                    subscriptions.values().forEach(subscription -> subscription.offerLog(record));
+                }
             }
         } else {
             var firstEntry = sessions.entrySet().iterator().next();
             record.setUniqueId(firstEntry.getKey());
             record.setDeviceId(firstEntry.getValue().getDeviceId());
             for (long userId : deviceUsers.getOrDefault(record.getDeviceId(), Set.of())) {
-                for (UpdateListener listener : listeners.getOrDefault(userId, Set.of())) {
-                    listener.onUpdateLog(record);
+                for (UpdateSubscription subscription : getSubscriptions(userId)) {
+                    subscription.offerLog(record);
                 }
             }
         }
@@ -384,23 +390,33 @@ public class ConnectionManager implements BroadcastInterface {
     }
 
     public synchronized void addListener(long userId, UpdateListener listener) throws StorageException {
-        var set = listeners.get(userId);
-        if (set == null) {
-            set = new HashSet<>();
-            listeners.put(userId, set);
-
+        var subscriptions = listeners.get(userId);
+        if (subscriptions == null) {
             var devices = storage.getObjects(Device.class, new Request(
                     new Columns.Include("id"), new Condition.Permission(User.class, userId, Device.class)));
-            userDevices.put(userId, devices.stream().map(BaseModel::getId).collect(Collectors.toSet()));
-            devices.forEach(device -> deviceUsers.computeIfAbsent(device.getId(), id -> new HashSet<>()).add(userId));
+            Set<Long> deviceIds = ConcurrentHashMap.newKeySet();
+            devices.forEach(device -> deviceIds.add(device.getId()));
+            userDevices.put(userId, deviceIds);
+            deviceIds.forEach(deviceId -> deviceUsers.computeIfAbsent(
+                    deviceId, id -> ConcurrentHashMap.newKeySet()).add(userId));
+
+            subscriptions = new ConcurrentHashMap<>();
+            listeners.put(userId, subscriptions);
+        }
+        var previous = subscriptions.put(listener, new UpdateSubscription(
+                listener, updateExecutor, updateQueueLimit, updateStatistics));
+        if (previous != null) {
+            previous.cancel();
         }
-        set.add(listener);
     }
 
     public synchronized void removeListener(long userId, UpdateListener listener) {
-        var set = listeners.get(userId);
-        set.remove(listener);
-        if (set.isEmpty()) {
+        var subscriptions = listeners.get(userId);
+        var subscription = subscriptions.remove(listener);
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        if (subscriptions.isEmpty()) {
             listeners.remove(userId);
 
             userDevices.remove(userId).forEach(deviceId -> deviceUsers.computeIfPresent(deviceId, (x, userIds) -> {
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.model.Device;
+import org.traccar.model.Event;
+import org.traccar.model.LogRecord;
+import org.traccar.model.Position;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers updates to a single listener on a shared executor, so a slow listener never holds up the caller.
+ * Device and position updates are coalesced to the latest value per device, while events and logs are kept in
+ * a bounded queue that drops the oldest entries when the listener falls behind.
+ */
+final class UpdateSubscription {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UpdateSubscription.class);
+
+    static final class Statistics {
+        private final LongAdder deliveries = new LongAdder();
+        private final LongAdder latency = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        /**
+         * Number of dropped messages since the previous call.
+         */
+        long drainDropped() {
+            return dropped.sumThenReset();
+        }
+
+        /**
+         * Average time in milliseconds between queuing an update and starting its delivery since the previous call.
+         */
+        long drainLatency() {
+            long count = deliveries.sumThenReset();
+            long total = latency.sumThenReset();
+            return count > 0 ? total / count / 1_000_000 : 0;
+        }
+    }
+
+    private final ConnectionManager.UpdateListener listener;
+    private final Executor executor;
+    private final int queueLimit;
+    private final Statistics statistics;
+
+    private boolean keepalive;
+    private Map<Long, Device> devices = new LinkedHashMap<>();
+    private Map<Long, Position> positions = new LinkedHashMap<>();
+    private Queue<Object> messages = new ArrayDeque<>();
+    private long pendingSince;
+    private boolean scheduled;
+    private volatile boolean cancelled;
+
+    UpdateSubscription(
+            ConnectionManager.UpdateListener listener, Executor executor, int queueLimit, Statistics statistics) {
+        this.listener = listener;
+        this.executor = executor;
+        this.queueLimit = queueLimit;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Stop delivering updates. Pending updates are discarded and a delivery that is already running stops before the
+     * next update.
+     */
+    synchronized void cancel() {
+        cancelled = true;
+        keepalive = false;
+        devices.clear();
+        positions.clear();
+        messages.clear();
+    }
+
+    synchronized void offerKeepalive() {
+        keepalive = true;
+        schedule();
+    }
+
+    synchronized void offerDevice(Device device) {
+        devices.put(device.getId(), device);
+        schedule();
+    }
+
+    synchronized void offerPosition(Position position) {
+        positions.put(position.getDeviceId(), position);
+        schedule();
+    }
+
+    synchronized void offerEvent(Event event) {
+        offerMessage(event);
+    }
+
+    synchronized void offerLog(LogRecord record) {
+        offerMessage(record);
+    }
+
+    private void offerMessage(Object message) {
+        if (messages.size() >= queueLimit) {
+            messages.poll();
+            statistics.dropped.increment();
+        }
+        messages.offer(message);
+        schedule();
+    }
+
+    private void schedule() {
+        if (!scheduled && !cancelled) {
+            scheduled = true;
+            pendingSince = System.nanoTime();
+            executor.execute(this::deliver);
+        }
+    }
+
+    private void deliver() {
+        boolean pendingKeepalive;
+        List<Device> pendingDevices;
+        List<Position> pendingPositions;
+        Queue<Object> pendingMessages;
+        synchronized (this) {
+            pendingKeepalive = keepalive;
+            pendingDevices = new ArrayList<>(devices.values());
+            pendingPositions = new ArrayList<>(positions.values());
+            pendingMessages = messages;
+            keepalive = false;
+            devices = new LinkedHashMap<>();
+            positions = new LinkedHashMap<>();
+            messages = new ArrayDeque<>();
+            statistics.deliveries.increment();
+            statistics.latency.add(System.nanoTime() - pendingSince);
+        }
+        try {
+            if (pendingKeepalive && !cancelled) {
+                listener.onKeepalive();
+            }
+            for (Device device : pendingDevices) {
+                if (cancelled) {
+                    return;
+                }
+                listener.onUpdateDevice(device);
+            }
+            for (Position position : pendingPositions) {
+                if (cancelled) {
+                    return;
+                }
+                listener.onUpdatePosition(position);
+            }
+            for (Object message : pendingMessages) {
+                if (cancelled) {
+                    return;
+                } else if (message instanceof Event event) {
+                    listener.onUpdateEvent(event);
+                } else if (message instanceof LogRecord record) {
+                    listener.onUpdateLog(record);
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Update delivery error", e);
+        } finally {
+            synchronized (this) {
+                scheduled = false;
+                if (keepalive || !devices.isEmpty() || !positions.isEmpty() || !messages.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+
+}
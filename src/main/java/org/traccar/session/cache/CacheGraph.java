@@ -17,7 +17,10 @@ package org.traccar.session.cache;
 
 import org.traccar.helper.ConcurrentWeakValueMap;
 import org.traccar.model.BaseModel;
+import org.traccar.model.Geofence;
+import org.traccar.model.Group;
 
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -81,10 +84,28 @@ public class CacheGraph {
         return Stream.concat(directSteam, proxyStream);
     }
 
+    Set<Geofence> getGeofences(Class<? extends BaseModel> fromClass, long fromId, double latitude, double longitude) {
+        CacheNode rootNode = nodes.get(new CacheKey(fromClass, fromId));
+        if (rootNode == null) {
+            return Set.of();
+        }
+        Set<Geofence> result = new HashSet<>();
+        collectGeofences(rootNode, latitude, longitude, result);
+        return result;
+    }
+
+    private void collectGeofences(CacheNode node, double latitude, double longitude, Set<Geofence> result) {
+        node.getGeofenceIndex().query(latitude, longitude, geofence -> result.add((Geofence) geofence.getValue()));
+        node.linkStream(Group.class, true).forEach(group -> collectGeofences(group, latitude, longitude, result));
+    }
+
     void updateObject(BaseModel value) {
         CacheNode node = nodes.get(new CacheKey(value));
         if (node != null) {
             node.setValue(value);
+            if (value instanceof Geofence) {
+                node.getAllLinks(false).forEach(owner -> owner.updateGeofence(node));
+            }
         }
     }
 
@@ -52,9 +52,11 @@ import java.util.Date;
 import java.util.Deque;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -75,6 +77,11 @@ public class CacheManager implements BroadcastInterface {
     private volatile Server server;
     private final Map<Long, ConcurrentLinkedDeque<Position>> devicePositions = new ConcurrentHashMap<>();
     private final Map<Long, HashSet<Object>> deviceReferences = new ConcurrentHashMap<>();
+    private final Map<Long, Map<String, Optional<Object>>> deviceAttributes = new ConcurrentHashMap<>();
+    private final Map<Long, DeviceObjects> deviceObjects = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    private final Set<BroadcastInterface> listeners = ConcurrentHashMap.newKeySet();
 
     @Inject
     public CacheManager(Config config, Storage storage, BroadcastService broadcastService) throws StorageException {
@@ -94,15 +101,42 @@ public class CacheManager implements BroadcastInterface {
         return config;
     }
 
+    public void addListener(BroadcastInterface listener) {
+        listeners.add(listener);
+    }
+
     public <T extends BaseModel> T getObject(Class<T> clazz, long id) {
         return graph.getObject(clazz, id);
     }
 
     public <T extends BaseModel> Set<T> getDeviceObjects(long deviceId, Class<T> clazz) {
+        DeviceObjects objects = deviceObjects.get(deviceId);
+        if (objects != null) {
+            return objects.getObjects(version.get(), clazz, key -> loadDeviceObjects(deviceId, key));
+        }
+        return loadDeviceObjects(deviceId, clazz);
+    }
+
+    private <T extends BaseModel> Set<T> loadDeviceObjects(long deviceId, Class<T> clazz) {
         return graph.getObjects(Device.class, deviceId, clazz, Set.of(Group.class), true)
                 .collect(Collectors.toUnmodifiableSet());
     }
 
+    public Set<Geofence> getDeviceGeofences(long deviceId, double latitude, double longitude) {
+        return graph.getGeofences(Device.class, deviceId, latitude, longitude);
+    }
+
+    /**
+     * Per-device snapshot of resolved attribute values keyed by config key name. Returns null for devices that are
+     * not cached. The snapshot is dropped when the device, any group or the server changes.
+     */
+    public Map<String, Optional<Object>> getResolvedAttributes(long deviceId) {
+        if (!deviceReferences.containsKey(deviceId)) {
+            return null;
+        }
+        return deviceAttributes.computeIfAbsent(deviceId, k -> new ConcurrentHashMap<>());
+    }
+
     public Position getPosition(long deviceId) {
         var positions = devicePositions.get(deviceId);
         return positions != null ? positions.peekLast() : null;
@@ -124,6 +158,14 @@ public class CacheManager implements BroadcastInterface {
     }
 
     public Set<Notification> getDeviceNotifications(long deviceId) {
+        DeviceObjects objects = deviceObjects.get(deviceId);
+        if (objects != null) {
+            return objects.getNotifications(version.get(), () -> loadDeviceNotifications(deviceId));
+        }
+        return loadDeviceNotifications(deviceId);
+    }
+
+    private Set<Notification> loadDeviceNotifications(long deviceId) {
         var direct = graph.getObjects(Device.class, deviceId, Notification.class, Set.of(Group.class), true)
                 .map(BaseModel::getId)
                 .collect(Collectors.toUnmodifiableSet());
@@ -162,6 +204,7 @@ public class CacheManager implements BroadcastInterface {
             }
         }
         references.add(key);
+        deviceObjects.computeIfAbsent(deviceId, k -> new DeviceObjects());
         LOGGER.debug("Cache add device {} references {} key {}", deviceId, references.size(), key);
     }
 
@@ -172,6 +215,8 @@ public class CacheManager implements BroadcastInterface {
             graph.removeObject(Device.class, deviceId);
             devicePositions.remove(deviceId);
             deviceReferences.remove(deviceId);
+            deviceAttributes.remove(deviceId);
+            deviceObjects.remove(deviceId);
         }
         LOGGER.debug("Cache remove device {} references {} key {}", deviceId, references.size(), key);
     }
@@ -229,58 +274,73 @@ public class CacheManager implements BroadcastInterface {
         }
 
         synchronized (this) {
-            if (operation == ObjectOperation.DELETE) {
-                graph.removeObject(clazz, id);
-            }
-            if (operation != ObjectOperation.UPDATE) {
-                return;
+            updateObject(clazz, id, operation);
+            if (clazz.equals(Device.class)) {
+                deviceAttributes.remove(id);
+            } else if (clazz.equals(Group.class) || clazz.equals(Server.class)) {
+                deviceAttributes.clear();
             }
+            version.incrementAndGet();
+        }
 
-            if (clazz.equals(Server.class)) {
-                server = storage.getObject(Server.class, new Request(new Columns.All()));
-                return;
-            }
+        for (BroadcastInterface listener : listeners) {
+            listener.invalidateObject(local, clazz, id, operation);
+        }
+    }
 
-            var after = storage.getObject(clazz, new Request(
-                    new Columns.All(), new Condition.Equals("id", id)));
-            if (after == null) {
-                return;
-            }
-            var before = getObject(after.getClass(), after.getId());
-            if (before == null) {
-                return;
-            }
+    private <T extends BaseModel> void updateObject(
+            Class<T> clazz, long id, ObjectOperation operation) throws Exception {
+        if (operation == ObjectOperation.DELETE) {
+            graph.removeObject(clazz, id);
+        }
+        if (operation != ObjectOperation.UPDATE) {
+            return;
+        }
 
-            switch (after) {
-                case GroupedModel afterGrouped -> {
-                    long beforeGroupId = ((GroupedModel) before).getGroupId();
-                    long afterGroupId = afterGrouped.getGroupId();
-                    if (beforeGroupId != afterGroupId) {
-                        if (beforeGroupId > 0) {
-                            invalidatePermission(clazz, id, Group.class, beforeGroupId, false);
-                        }
-                        if (afterGroupId > 0) {
-                            invalidatePermission(clazz, id, Group.class, afterGroupId, true);
-                        }
+        if (clazz.equals(Server.class)) {
+            server = storage.getObject(Server.class, new Request(new Columns.All()));
+            return;
+        }
+
+        var after = storage.getObject(clazz, new Request(
+                new Columns.All(), new Condition.Equals("id", id)));
+        if (after == null) {
+            return;
+        }
+        var before = getObject(after.getClass(), after.getId());
+        if (before == null) {
+            return;
+        }
+
+        switch (after) {
+            case GroupedModel afterGrouped -> {
+                long beforeGroupId = ((GroupedModel) before).getGroupId();
+                long afterGroupId = afterGrouped.getGroupId();
+                if (beforeGroupId != afterGroupId) {
+                    if (beforeGroupId > 0) {
+                        invalidatePermission(clazz, id, Group.class, beforeGroupId, false);
+                    }
+                    if (afterGroupId > 0) {
+                        invalidatePermission(clazz, id, Group.class, afterGroupId, true);
                     }
                 }
-                case Schedulable afterSchedulable -> {
-                    long beforeCalendarId = ((Schedulable) before).getCalendarId();
-                    long afterCalendarId = afterSchedulable.getCalendarId();
-                    if (beforeCalendarId != afterCalendarId) {
-                        if (beforeCalendarId > 0) {
-                            invalidatePermission(clazz, id, Calendar.class, beforeCalendarId, false);
-                        }
-                        if (afterCalendarId > 0) {
-                            invalidatePermission(clazz, id, Calendar.class, afterCalendarId, true);
-                        }
+            }
+            case Schedulable afterSchedulable -> {
+                long beforeCalendarId = ((Schedulable) before).getCalendarId();
+                long afterCalendarId = afterSchedulable.getCalendarId();
+                if (beforeCalendarId != afterCalendarId) {
+                    if (beforeCalendarId > 0) {
+                        invalidatePermission(clazz, id, Calendar.class, beforeCalendarId, false);
+                    }
+                    if (afterCalendarId > 0) {
+                        invalidatePermission(clazz, id, Calendar.class, afterCalendarId, true);
                     }
                 }
-                default -> {}
             }
-
-            graph.updateObject(after);
+            default -> {}
         }
+
+        graph.updateObject(after);
     }
 
     @Override
@@ -296,6 +356,11 @@ public class CacheManager implements BroadcastInterface {
             } else {
                 invalidatePermission(clazz1, id1, clazz2, id2, link);
             }
+            version.incrementAndGet();
+        }
+
+        for (BroadcastInterface listener : listeners) {
+            listener.invalidatePermission(local, clazz1, id1, clazz2, id2, link);
         }
     }
 
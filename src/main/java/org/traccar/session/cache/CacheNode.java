@@ -15,7 +15,10 @@
  */
 package org.traccar.session.cache;
 
+import org.traccar.geofence.GeofenceGeometry;
+import org.traccar.geofence.GeofenceIndex;
 import org.traccar.model.BaseModel;
+import org.traccar.model.Geofence;
 
 import java.util.Map;
 import java.util.Set;
@@ -29,6 +32,8 @@ public class CacheNode {
     private final Map<Class<? extends BaseModel>, Set<CacheNode>> links = new ConcurrentHashMap<>();
     private final Map<Class<? extends BaseModel>, Set<CacheNode>> backlinks = new ConcurrentHashMap<>();
 
+    private volatile GeofenceIndex<CacheNode> geofenceIndex;
+
     public CacheNode(BaseModel value) {
         this.value = value;
     }
@@ -53,13 +58,61 @@ public class CacheNode {
 
     public void addLink(Class<? extends BaseModel> clazz, boolean forward, CacheNode node) {
         var map = forward ? links : backlinks;
-        map.computeIfAbsent(clazz, key -> ConcurrentHashMap.newKeySet()).add(node);
+        if (forward && clazz.equals(Geofence.class)) {
+            synchronized (this) {
+                map.computeIfAbsent(clazz, key -> ConcurrentHashMap.newKeySet()).add(node);
+                if (geofenceIndex != null) {
+                    geofenceIndex.put(node, getGeometry(node));
+                }
+            }
+        } else {
+            map.computeIfAbsent(clazz, key -> ConcurrentHashMap.newKeySet()).add(node);
+        }
     }
 
     public void removeLink(Class<? extends BaseModel> clazz, boolean forward, CacheNode node) {
         Set<CacheNode> set = (forward ? links : backlinks).get(clazz);
         if (set != null) {
-            set.remove(node);
+            if (forward && clazz.equals(Geofence.class)) {
+                synchronized (this) {
+                    set.remove(node);
+                    if (geofenceIndex != null) {
+                        geofenceIndex.remove(node);
+                    }
+                }
+            } else {
+                set.remove(node);
+            }
+        }
+    }
+
+    public GeofenceIndex<CacheNode> getGeofenceIndex() {
+        GeofenceIndex<CacheNode> index = geofenceIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = geofenceIndex;
+                if (index == null) {
+                    GeofenceIndex<CacheNode> created = new GeofenceIndex<>();
+                    linkStream(Geofence.class, true).forEach(node -> created.put(node, getGeometry(node)));
+                    geofenceIndex = created;
+                    index = created;
+                }
+            }
+        }
+        return index;
+    }
+
+    public synchronized void updateGeofence(CacheNode node) {
+        if (geofenceIndex != null && geofenceIndex.contains(node)) {
+            geofenceIndex.put(node, getGeometry(node));
+        }
+    }
+
+    private static GeofenceGeometry getGeometry(CacheNode node) {
+        try {
+            return ((Geofence) node.getValue()).getGeometry();
+        } catch (RuntimeException e) {
+            return null;
         }
     }
 
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.session.cache;
+
+import org.traccar.model.BaseModel;
+import org.traccar.model.Notification;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Objects reachable from a cached device, materialised per class. A snapshot is only valid for the cache version it
+ * was created with, so any link or object change in the graph makes the next read start a fresh one.
+ */
+class DeviceObjects {
+
+    private static final class Snapshot {
+
+        private final long version;
+        private final Map<Class<? extends BaseModel>, Set<? extends BaseModel>> objects = new ConcurrentHashMap<>();
+        private volatile Set<Notification> notifications;
+
+        private Snapshot(long version) {
+            this.version = version;
+        }
+
+    }
+
+    private volatile Snapshot snapshot;
+
+    private Snapshot getSnapshot(long version) {
+        Snapshot current = snapshot;
+        if (current == null || current.version != version) {
+            current = new Snapshot(version);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T extends BaseModel> Set<T> getObjects(long version, Class<T> clazz, Function<Class<T>, Set<T>> loader) {
+        return (Set<T>) getSnapshot(version).objects.computeIfAbsent(clazz, key -> loader.apply(clazz));
+    }
+
+    Set<Notification> getNotifications(long version, Supplier<Set<Notification>> loader) {
+        Snapshot current = getSnapshot(version);
+        Set<Notification> result = current.notifications;
+        if (result == null) {
+            result = loader.get();
+            current.notifications = result;
+        }
+        return result;
+    }
+
+}
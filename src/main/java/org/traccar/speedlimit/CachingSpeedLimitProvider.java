@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.speedlimit;
+
+import org.traccar.database.StatisticsManager;
+import org.traccar.helper.GridCache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Speed limit provider decorator that caches results for cells of a coordinate grid. Concurrent lookups for the same
+ * cell are coalesced into a single request to the underlying provider.
+ */
+public class CachingSpeedLimitProvider implements SpeedLimitProvider {
+
+    private record CachedResult(double speedLimit, Throwable error, long time) {
+    }
+
+    private final SpeedLimitProvider provider;
+    private final long timeout;
+
+    private final GridCache<CachedResult, SpeedLimitProviderCallback> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingSpeedLimitProvider(
+            SpeedLimitProvider provider, StatisticsManager statisticsManager,
+            int cacheSize, double gridSize, long timeout) {
+        this.provider = provider;
+        this.timeout = timeout;
+        cache = new GridCache<>(cacheSize, gridSize);
+        statisticsManager.registerGauge("speedLimitCacheHits", hits::sumThenReset);
+        statisticsManager.registerGauge("speedLimitCacheMisses", misses::sumThenReset);
+    }
+
+    private static void dispatch(SpeedLimitProviderCallback callback, CachedResult result) {
+        if (result.error() != null) {
+            callback.onFailure(result.error());
+        } else {
+            callback.onSuccess(result.speedLimit());
+        }
+    }
+
+    @Override
+    public void getSpeedLimit(double latitude, double longitude, SpeedLimitProviderCallback callback) {
+        long key = cache.getKey(latitude, longitude);
+
+        CachedResult cached = cache.get(key);
+        if (cached != null && System.currentTimeMillis() - cached.time() < timeout) {
+            hits.increment();
+            dispatch(callback, cached);
+            return;
+        }
+
+        if (!cache.await(key, callback)) {
+            hits.increment();
+            return;
+        }
+        misses.increment();
+
+        provider.getSpeedLimit(latitude, longitude, new SpeedLimitProviderCallback() {
+            @Override
+            public void onSuccess(double speedLimit) {
+                complete(key, new CachedResult(speedLimit, null, System.currentTimeMillis()), true);
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                // only results from the provider are cached, network errors are retried on the next lookup
+                complete(key, new CachedResult(0, e, System.currentTimeMillis()), e instanceof SpeedLimitException);
+            }
+        });
+    }
+
+    private void complete(long key, CachedResult result, boolean store) {
+        for (SpeedLimitProviderCallback callback : cache.complete(key, store ? result : null)) {
+            dispatch(callback, result);
+        }
+    }
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.storage;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.traccar.model.AttributeMap;
+import org.traccar.model.Position;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact text-safe encoding for attribute maps. The payload is a prefix character followed by Base64 of a binary
+ * sequence of entries. Keys are dictionary indexes or inline strings, values are tagged varints, doubles or strings.
+ * Values without a dedicated tag are embedded as JSON. Decoded values have the same types Jackson would produce
+ * for the equivalent JSON.
+ */
+public final class AttributesCodec {
+
+    public static final char PREFIX = '~';
+
+    /**
+     * Append only, indexes are persisted.
+     */
+    private static final String[] DICTIONARY = {
+            Position.KEY_ORIGINAL, Position.KEY_INDEX, Position.KEY_HDOP, Position.KEY_VDOP, Position.KEY_PDOP,
+            Position.KEY_SATELLITES, Position.KEY_SATELLITES_VISIBLE, Position.KEY_RSSI, Position.KEY_GPS,
+            Position.KEY_ROAMING, Position.KEY_EVENT, Position.KEY_ALARM, Position.KEY_STATUS,
+            Position.KEY_ODOMETER, Position.KEY_ODOMETER_SERVICE, Position.KEY_ODOMETER_TRIP, Position.KEY_HOURS,
+            Position.KEY_STEPS, Position.KEY_HEART_RATE, Position.KEY_INPUT, Position.KEY_OUTPUT,
+            Position.KEY_IMAGE, Position.KEY_VIDEO, Position.KEY_AUDIO, Position.KEY_POWER, Position.KEY_BATTERY,
+            Position.KEY_BATTERY_LEVEL, Position.KEY_FUEL, Position.KEY_FUEL_USED, Position.KEY_FUEL_CONSUMPTION,
+            Position.KEY_FUEL_LEVEL, Position.KEY_VERSION_FW, Position.KEY_VERSION_HW, Position.KEY_TYPE,
+            Position.KEY_IGNITION, Position.KEY_FLAGS, Position.KEY_ANTENNA, Position.KEY_CHARGE, Position.KEY_IP,
+            Position.KEY_ARCHIVE, Position.KEY_DISTANCE, Position.KEY_TOTAL_DISTANCE, Position.KEY_RPM,
+            Position.KEY_VIN, Position.KEY_APPROXIMATE, Position.KEY_THROTTLE, Position.KEY_MOTION,
+            Position.KEY_ARMED, Position.KEY_GEOFENCE, Position.KEY_ACCELERATION, Position.KEY_HUMIDITY,
+            Position.KEY_DEVICE_TEMP, Position.KEY_COOLANT_TEMP, Position.KEY_ENGINE_LOAD, Position.KEY_ENGINE_TEMP,
+            Position.KEY_OPERATOR, Position.KEY_COMMAND, Position.KEY_BLOCKED, Position.KEY_LOCK, Position.KEY_DOOR,
+            Position.KEY_AXLE_WEIGHT, Position.KEY_G_SENSOR, Position.KEY_ICCID, Position.KEY_PHONE,
+            Position.KEY_SPEED_LIMIT, Position.KEY_DRIVING_TIME, Position.KEY_DTCS, Position.KEY_OBD_SPEED,
+            Position.KEY_OBD_ODOMETER, Position.KEY_RESULT, Position.KEY_DRIVER_UNIQUE_ID, Position.KEY_CARD
+    };
+
+    private static final Map<String, Integer> DICTIONARY_INDEX = new HashMap<>();
+
+    static {
+        for (int i = 0; i < DICTIONARY.length; i++) {
+            DICTIONARY_INDEX.putIfAbsent(DICTIONARY[i], i + 1);
+        }
+    }
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_DOUBLE = 5;
+    private static final int TAG_STRING = 6;
+    private static final int TAG_JSON = 7;
+
+    private AttributesCodec() {
+    }
+
+    public static boolean isEncoded(String value) {
+        return !value.isEmpty() && value.charAt(0) == PREFIX;
+    }
+
+    public static String encode(ObjectMapper objectMapper, Map<String, Object> attributes)
+            throws JsonProcessingException {
+        Writer writer = new Writer(attributes.size() * 8 + 8);
+        writer.writeVarint(attributes.size());
+        for (var entry : attributes.entrySet()) {
+            Integer index = DICTIONARY_INDEX.get(entry.getKey());
+            if (index != null) {
+                writer.writeVarint(index);
+            } else {
+                writer.writeVarint(0);
+                writer.writeString(entry.getKey());
+            }
+            writeValue(objectMapper, writer, entry.getValue());
+        }
+        return PREFIX + Base64.getEncoder().withoutPadding().encodeToString(writer.toByteArray());
+    }
+
+    private static void writeValue(ObjectMapper objectMapper, Writer writer, Object value)
+            throws JsonProcessingException {
+        switch (value) {
+            case null -> writer.writeByte(TAG_NULL);
+            case Boolean booleanValue -> writer.writeByte(booleanValue ? TAG_TRUE : TAG_FALSE);
+            case Integer integerValue -> writeLong(writer, integerValue);
+            case Short shortValue -> writeLong(writer, shortValue);
+            case Byte byteValue -> writeLong(writer, byteValue);
+            case Long longValue -> writeLong(writer, longValue);
+            case Double doubleValue -> {
+                writer.writeByte(TAG_DOUBLE);
+                writer.writeLong(Double.doubleToRawLongBits(doubleValue));
+            }
+            case Float floatValue -> {
+                writer.writeByte(TAG_DOUBLE);
+                writer.writeLong(Double.doubleToRawLongBits(Double.parseDouble(floatValue.toString())));
+            }
+            case String stringValue -> {
+                writer.writeByte(TAG_STRING);
+                writer.writeString(stringValue);
+            }
+            default -> {
+                writer.writeByte(TAG_JSON);
+                writer.writeString(objectMapper.writeValueAsString(value));
+            }
+        }
+    }
+
+    private static void writeLong(Writer writer, long value) {
+        writer.writeByte(value == (int) value ? TAG_INT : TAG_LONG);
+        writer.writeVarint(value << 1 ^ value >> 63);
+    }
+
+    public static AttributeMap decode(ObjectMapper objectMapper, String value) throws JsonProcessingException {
+        Reader reader = new Reader(Base64.getDecoder().decode(value.substring(1)));
+        AttributeMap attributes = new AttributeMap();
+        int count = (int) reader.readVarint();
+        for (int i = 0; i < count; i++) {
+            int index = (int) reader.readVarint();
+            String key = index > 0 ? DICTIONARY[index - 1] : reader.readString();
+            attributes.put(key, readValue(objectMapper, reader));
+        }
+        return attributes;
+    }
+
+    private static Object readValue(ObjectMapper objectMapper, Reader reader) throws JsonProcessingException {
+        int tag = reader.readByte();
+        return switch (tag) {
+            case TAG_NULL -> null;
+            case TAG_FALSE -> false;
+            case TAG_TRUE -> true;
+            case TAG_INT -> (int) reader.readZigzag();
+            case TAG_LONG -> reader.readZigzag();
+            case TAG_DOUBLE -> Double.longBitsToDouble(reader.readLong());
+            case TAG_STRING -> reader.readString();
+            case TAG_JSON -> objectMapper.readValue(reader.readString(), Object.class);
+            default -> throw new IllegalArgumentException("Unknown attribute tag " + tag);
+        };
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int length;
+
+        private Writer(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+            }
+        }
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[length++] = (byte) value;
+        }
+
+        private void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[length++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            buffer[length++] = (byte) value;
+        }
+
+        private void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+
+    }
+
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+
+        private Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        private int readByte() {
+            return buffer[position++] & 0xFF;
+        }
+
+        private long readVarint() {
+            long result = 0;
+            int shift = 0;
+            int value;
+            do {
+                value = readByte();
+                result |= (long) (value & 0x7F) << shift;
+                shift += 7;
+            } while ((value & 0x80) != 0);
+            return result;
+        }
+
+        private long readZigzag() {
+            long value = readVarint();
+            return value >>> 1 ^ -(value & 1);
+        }
+
+        private long readLong() {
+            long result = 0;
+            for (int i = 0; i < 8; i++) {
+                result = result << 8 | readByte();
+            }
+            return result;
+        }
+
+        private String readString() {
+            int length = (int) readVarint();
+            String result = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return result;
+        }
+
+    }
+
+}
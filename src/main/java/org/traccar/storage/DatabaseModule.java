@@ -79,6 +79,15 @@ public class DatabaseModule extends AbstractModule {
         }
         hikariConfig.setMaximumPoolSize(config.getInteger(Keys.DATABASE_MAX_POOL_SIZE));
 
+        String url = config.getString(Keys.DATABASE_URL);
+        if (url != null && (url.startsWith("jdbc:mysql:") || url.startsWith("jdbc:mariadb:"))) {
+            // reuse server-side prepared statements per pooled connection
+            hikariConfig.addDataSourceProperty("useServerPrepStmts", "true");
+            hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
+            hikariConfig.addDataSourceProperty("prepStmtCacheSize", "250");
+            hikariConfig.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        }
+
         DataSource dataSource = new HikariDataSource(hikariConfig);
 
         String changelog = config.getString(Keys.DATABASE_CHANGELOG);
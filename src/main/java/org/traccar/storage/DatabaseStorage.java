@@ -34,20 +34,41 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class DatabaseStorage extends Storage {
 
+    private static final int MAX_INSERT_PARAMETERS = 30000;
+    private static final int MAX_CACHED_QUERIES = 1000;
+
+    private record SelectKey(Class<?> clazz, Columns columns, Object condition, Order order) {}
+    private record CompareKey(String column, String operator) {}
+    private record BetweenKey(String column) {}
+    private record BinaryKey(Object first, Object second, String operator) {}
+    private record PermissionKey(Class<?> ownerClass, Class<?> propertyClass, boolean owner, boolean groups) {}
+    private record ContainsKey(List<String> columns) {}
+    private record LatestPositionsKey(boolean device) {}
+
     private final Config config;
     private final DataSource dataSource;
     private final ObjectMapper objectMapper;
     private final String databaseType;
 
+    private final Map<SelectKey, String> selectQueries = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<SelectKey, String> eldest) {
+                    return size() > MAX_CACHED_QUERIES;
+                }
+            });
+
     @Inject
     public DatabaseStorage(Config config, DataSource dataSource, ObjectMapper objectMapper) {
         this.config = config;
@@ -70,18 +91,10 @@ public class DatabaseStorage extends Storage {
 
     @Override
     public <T> Stream<T> getObjectsStream(Class<T> clazz, Request request) throws StorageException {
-        StringBuilder query = new StringBuilder("SELECT ");
-        if (request.getColumns() instanceof Columns.All) {
-            query.append('*');
-        } else {
-            query.append(formatColumns(request.getColumns().getColumns(clazz, "set"), c -> c));
-        }
-        query.append(" FROM ").append(getStorageName(clazz));
-        query.append(formatCondition(request.getCondition()));
-        query.append(formatOrder(request.getOrder()));
+        String query = formatSelect(clazz, request);
         QueryBuilder builder = null;
         try {
-            builder = QueryBuilder.create(config, dataSource, objectMapper, query.toString());
+            builder = QueryBuilder.create(config, dataSource, objectMapper, query);
             List<Object> values = getConditionVariables(request.getCondition());
             for (int index = 0; index < values.size(); index++) {
                 builder.setValue(index, values.get(index));
@@ -102,6 +115,44 @@ public class DatabaseStorage extends Storage {
         }
     }
 
+    private String formatSelect(Class<?> clazz, Request request) throws StorageException {
+        var key = new SelectKey(
+                clazz, request.getColumns(), getConditionKey(request.getCondition()), request.getOrder());
+        String cached = selectQueries.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        StringBuilder query = new StringBuilder("SELECT ");
+        if (request.getColumns() instanceof Columns.All) {
+            query.append('*');
+        } else {
+            query.append(formatColumns(request.getColumns().getColumns(clazz, "set"), c -> c));
+        }
+        query.append(" FROM ").append(getStorageName(clazz));
+        query.append(formatCondition(request.getCondition()));
+        query.append(formatOrder(request.getOrder()));
+        String result = query.toString();
+        selectQueries.put(key, result);
+        return result;
+    }
+
+    private Object getConditionKey(Condition genericCondition) {
+        return switch (genericCondition) {
+            case null -> null;
+            case Condition.Compare condition -> new CompareKey(condition.getColumn(), condition.getOperator());
+            case Condition.Between condition -> new BetweenKey(condition.getColumn());
+            case Condition.Binary condition -> new BinaryKey(
+                    getConditionKey(condition.getFirst()), getConditionKey(condition.getSecond()),
+                    condition.getOperator());
+            case Condition.Permission condition -> new PermissionKey(
+                    condition.getOwnerClass(), condition.getPropertyClass(),
+                    condition.getOwnerId() > 0, condition.getIncludeGroups());
+            case Condition.Contains condition -> new ContainsKey(condition.getColumns());
+            case Condition.LatestPositions condition -> new LatestPositionsKey(condition.getDeviceId() > 0);
+            default -> genericCondition.getClass();
+        };
+    }
+
     @Override
     public <T> long addObject(T entity, Request request) throws StorageException {
         List<String> columns = request.getColumns().getColumns(entity.getClass(), "get");
@@ -118,31 +169,80 @@ public class DatabaseStorage extends Storage {
     public <T> List<Long> addObjects(List<T> entities, Request request) throws StorageException {
         Class<?> entityClass = entities.getFirst().getClass();
         List<String> columns = request.getColumns().getColumns(entityClass, "get");
+        List<Long> ids = isMultiRowInsertSupported()
+                ? addObjectsMultiRow(entityClass, entities, columns)
+                : addObjectsBatch(entityClass, entities, columns);
+        if (ids.size() != entities.size()) {
+            throw new StorageException(
+                    "Generated key count " + ids.size() + " does not match batch size " + entities.size());
+        }
+        return ids;
+    }
+
+    private boolean isMultiRowInsertSupported() {
+        // only drivers that return a generated key for every row; MySQL reports just the first id of the
+        // statement and the rest of the range is not guaranteed to be consecutive
+        return switch (databaseType) {
+            case "PostgreSQL", "H2" -> true;
+            default -> false;
+        };
+    }
+
+    private <T> List<Long> addObjectsBatch(
+            Class<?> entityClass, List<T> entities, List<String> columns) throws StorageException {
         try (QueryBuilder builder = QueryBuilder.create(
                 config, dataSource, objectMapper, formatInsert(entityClass, columns), true)) {
             for (T entity : entities) {
                 builder.setObject(entity, columns);
                 builder.addBatch();
             }
-            List<Long> ids = builder.executeBatch();
-            if (ids.size() != entities.size()) {
-                throw new StorageException(
-                        "Generated key count " + ids.size() + " does not match batch size " + entities.size());
-            }
-            return ids;
+            return builder.executeBatch();
         } catch (SQLException e) {
             throw new StorageException(e);
         }
     }
 
+    private <T> List<Long> addObjectsMultiRow(
+            Class<?> entityClass, List<T> entities, List<String> columns) throws StorageException {
+        int rowsPerStatement = Math.max(1, MAX_INSERT_PARAMETERS / Math.max(1, columns.size()));
+        List<Long> ids = new ArrayList<>(entities.size());
+        for (int start = 0; start < entities.size(); start += rowsPerStatement) {
+            List<T> rows = entities.subList(start, Math.min(start + rowsPerStatement, entities.size()));
+            try (QueryBuilder builder = QueryBuilder.create(
+                    config, dataSource, objectMapper, formatInsert(entityClass, columns, rows.size()), true)) {
+                for (int row = 0; row < rows.size(); row++) {
+                    builder.setObject(rows.get(row), columns, row * columns.size());
+                }
+                List<Long> rowIds = builder.executeInsert();
+                if (rowIds.size() != rows.size()) {
+                    throw new StorageException(
+                            "Generated key count " + rowIds.size() + " does not match row count " + rows.size());
+                }
+                ids.addAll(rowIds);
+            } catch (SQLException e) {
+                throw new StorageException(e);
+            }
+        }
+        return ids;
+    }
+
     private String formatInsert(Class<?> entityClass, List<String> columns) throws StorageException {
+        return formatInsert(entityClass, columns, 1);
+    }
+
+    private String formatInsert(Class<?> entityClass, List<String> columns, int rows) throws StorageException {
         StringBuilder query = new StringBuilder("INSERT INTO ");
         query.append(getStorageName(entityClass));
         query.append("(");
         query.append(formatColumns(columns, c -> c));
-        query.append(") VALUES (");
-        query.append(formatColumns(columns, c -> "?"));
-        query.append(")");
+        query.append(") VALUES ");
+        String values = "(" + formatColumns(columns, c -> "?") + ")";
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                query.append(", ");
+            }
+            query.append(values);
+        }
         return query.toString();
     }
 
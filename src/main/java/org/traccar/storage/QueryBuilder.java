@@ -21,7 +21,9 @@ import org.slf4j.LoggerFactory;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.helper.ReflectionCache;
+import org.traccar.model.AttributeMap;
 import org.traccar.model.Permission;
+import org.traccar.model.Position;
 
 import javax.sql.DataSource;
 import java.lang.invoke.MethodHandle;
@@ -151,10 +153,15 @@ public final class QueryBuilder implements AutoCloseable {
     }
 
     public void setObject(Object object, List<String> columns) throws SQLException {
+        setObject(object, columns, 0);
+    }
+
+    public void setObject(Object object, List<String> columns, int offset) throws SQLException {
         try {
-            for (int index = 0; index < columns.size(); index++) {
-                String column = columns.get(index);
-                var property = ReflectionCache.getProperties(object.getClass(), "get").get(column);
+            for (int column = 0; column < columns.size(); column++) {
+                int index = offset + column;
+                String name = columns.get(column);
+                var property = ReflectionCache.getProperties(object.getClass(), "get").get(name);
                 Class<?> returnType = property.type();
                 Object value = property.handle().invokeExact(object);
                 if (returnType.equals(boolean.class)) {
@@ -162,7 +169,7 @@ public final class QueryBuilder implements AutoCloseable {
                 } else if (returnType.equals(int.class)) {
                     setInteger(index, (Integer) value);
                 } else if (returnType.equals(long.class)) {
-                    setLong(index, (Long) value, column.endsWith("Id"));
+                    setLong(index, (Long) value, name.endsWith("Id"));
                 } else if (returnType.equals(double.class)) {
                     setDouble(index, (Double) value);
                 } else if (returnType.equals(String.class)) {
@@ -171,6 +178,11 @@ public final class QueryBuilder implements AutoCloseable {
                     setDate(index, (Date) value);
                 } else if (returnType.equals(byte[].class)) {
                     setBlob(index, (byte[]) value);
+                } else if (value instanceof Map<?, ?> && object instanceof Position
+                        && config.getBoolean(Keys.DATABASE_COMPACT_ATTRIBUTES)) {
+                    @SuppressWarnings("unchecked")
+                    var attributes = (Map<String, Object>) value;
+                    setString(index, AttributesCodec.encode(objectMapper, attributes));
                 } else {
                     setString(index, objectMapper.writeValueAsString(value));
                 }
@@ -218,6 +230,15 @@ public final class QueryBuilder implements AutoCloseable {
             processors.add((object, resultSet) -> {
                 handle.invokeExact(object, (Object) resultSet.getBytes(columnIndex));
             });
+        } else if (parameterType.equals(AttributeMap.class)) {
+            processors.add((object, resultSet) -> {
+                String value = resultSet.getString(columnIndex);
+                if (value != null && !value.isEmpty()) {
+                    handle.invokeExact(object, (Object) (AttributesCodec.isEncoded(value)
+                            ? AttributesCodec.decode(objectMapper, value)
+                            : objectMapper.readValue(value, parameterType)));
+                }
+            });
         } else {
             processors.add((object, resultSet) -> {
                 String value = resultSet.getString(columnIndex);
@@ -328,6 +349,12 @@ public final class QueryBuilder implements AutoCloseable {
         return 0;
     }
 
+    public List<Long> executeInsert() throws SQLException {
+        logQuery();
+        statement.executeUpdate();
+        return readGeneratedKeys();
+    }
+
     public void addBatch() throws SQLException {
         statement.addBatch();
     }
@@ -335,6 +362,10 @@ public final class QueryBuilder implements AutoCloseable {
     public List<Long> executeBatch() throws SQLException {
         logQuery();
         statement.executeBatch();
+        return readGeneratedKeys();
+    }
+
+    private List<Long> readGeneratedKeys() throws SQLException {
         List<Long> ids = new ArrayList<>();
         if (returnGeneratedKeys) {
             try (ResultSet resultSet = statement.getGeneratedKeys()) {
@@ -20,6 +20,7 @@ import org.traccar.helper.ReflectionCache;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -39,6 +40,16 @@ public abstract class Columns {
         public List<String> getColumns(Class<?> clazz, String type) {
             return getAllColumns(clazz, type);
         }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof All;
+        }
+
+        @Override
+        public int hashCode() {
+            return All.class.hashCode();
+        }
     }
 
     public static class Include extends Columns {
@@ -52,6 +63,16 @@ public abstract class Columns {
         public List<String> getColumns(Class<?> clazz, String type) {
             return columns;
         }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Include other && columns.equals(other.columns);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(Include.class, columns);
+        }
     }
 
     public static class Exclude extends Columns {
@@ -67,6 +88,16 @@ public abstract class Columns {
                     .filter(column -> !columns.contains(column))
                     .collect(Collectors.toList());
         }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Exclude other && columns.equals(other.columns);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(Exclude.class, columns);
+        }
     }
 
 }
@@ -15,6 +15,8 @@
  */
 package org.traccar.storage.query;
 
+import java.util.Objects;
+
 public class Order {
 
     private final String column;
@@ -53,4 +55,24 @@ public class Order {
         return offset;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Order order = (Order) o;
+        return Objects.equals(column, order.column)
+                && descending == order.descending
+                && limit == order.limit
+                && offset == order.offset;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(column, descending, limit, offset);
+    }
+
 }
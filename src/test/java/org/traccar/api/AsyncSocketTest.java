@@ -0,0 +1,98 @@
+package org.traccar.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.jetty.websocket.api.Callback;
+import org.eclipse.jetty.websocket.api.Session;
+import org.junit.jupiter.api.Test;
+import org.traccar.model.Position;
+import org.traccar.session.ConnectionManager;
+import org.traccar.storage.Storage;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AsyncSocketTest {
+
+    private static final int SOCKETS = 10;
+    private static final int DEVICES = 50;
+    private static final int UPDATES = 5;
+
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+
+    private List<AsyncSocket> createSockets(ScheduledExecutorService scheduler, boolean batch) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<AsyncSocket> sockets = new ArrayList<>();
+        for (int i = 0; i < SOCKETS; i++) {
+            Session session = mock(Session.class);
+            when(session.isOpen()).thenReturn(true);
+            doAnswer(invocation -> {
+                frames.incrementAndGet();
+                bytes.addAndGet(((String) invocation.getArgument(0)).length());
+                return null;
+            }).when(session).sendText(anyString(), any(Callback.class));
+            AsyncSocket socket = new AsyncSocket(
+                    objectMapper, mock(ConnectionManager.class), mock(Storage.class), 1, scheduler, 50);
+            socket.onWebSocketOpen(session);
+            if (batch) {
+                socket.onWebSocketText("{\"batch\": true}");
+            }
+            sockets.add(socket);
+        }
+        frames.set(0);
+        bytes.set(0);
+        return sockets;
+    }
+
+    private void replay(List<AsyncSocket> sockets) {
+        for (int update = 0; update < UPDATES; update++) {
+            for (int device = 0; device < DEVICES; device++) {
+                Position position = new Position("test");
+                position.setDeviceId(device);
+                position.setTime(new Date());
+                position.setLatitude(device * 0.01);
+                position.setLongitude(update * 0.01);
+                for (AsyncSocket socket : sockets) {
+                    socket.onUpdatePosition(position);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBatchedFrames() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            replay(createSockets(scheduler, false));
+            long directFrames = frames.get();
+            long directBytes = bytes.get();
+            assertEquals((long) SOCKETS * DEVICES * UPDATES, directFrames);
+
+            replay(createSockets(scheduler, true));
+            Thread.sleep(200);
+            scheduler.shutdown();
+            assertTrue(scheduler.awaitTermination(1, TimeUnit.SECONDS));
+            long batchedFrames = frames.get();
+            long batchedBytes = bytes.get();
+            assertTrue(batchedFrames >= SOCKETS);
+            assertTrue(batchedFrames < directFrames / 10);
+            assertTrue(batchedBytes < directBytes);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+}
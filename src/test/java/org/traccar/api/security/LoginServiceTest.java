@@ -0,0 +1,82 @@
+package org.traccar.api.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.traccar.api.signature.TokenManager;
+import org.traccar.config.Config;
+import org.traccar.model.ObjectOperation;
+import org.traccar.model.RevokedToken;
+import org.traccar.model.User;
+import org.traccar.session.cache.CacheManager;
+import org.traccar.storage.Storage;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LoginServiceTest {
+
+    private static final String TOKEN = "token";
+
+    private Storage storage;
+    private TokenManager tokenManager;
+    private LoginService loginService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        storage = mock(Storage.class);
+        tokenManager = mock(TokenManager.class);
+        loginService = new LoginService(new Config(), storage, mock(CacheManager.class), tokenManager, null);
+
+        TokenManager.TokenData tokenData = mock(TokenManager.TokenData.class);
+        when(tokenData.getId()).thenReturn(5L);
+        when(tokenData.getUserId()).thenReturn(1L);
+        when(tokenData.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)));
+        when(tokenManager.verifyToken(TOKEN)).thenReturn(tokenData);
+
+        User user = new User();
+        user.setId(1);
+        when(storage.getObject(eq(User.class), any())).thenReturn(user);
+    }
+
+    @Test
+    public void testCachedToken() throws Exception {
+        assertEquals(1, loginService.login(TOKEN).getUser().getId());
+        assertEquals(1, loginService.login(TOKEN).getUser().getId());
+
+        verify(tokenManager, times(1)).verifyToken(TOKEN);
+        verify(storage, times(1)).getObject(eq(User.class), any());
+    }
+
+    @Test
+    public void testRevokedToken() throws Exception {
+        loginService.login(TOKEN);
+
+        when(tokenManager.verifyToken(TOKEN)).thenThrow(new SecurityException("Token has been revoked"));
+        loginService.invalidateObject(false, RevokedToken.class, 5, ObjectOperation.ADD);
+
+        assertThrows(SecurityException.class, () -> loginService.login(TOKEN));
+    }
+
+    @Test
+    public void testDisabledUser() throws Exception {
+        loginService.login(TOKEN);
+
+        User disabled = new User();
+        disabled.setId(1);
+        disabled.setDisabled(true);
+        when(storage.getObject(eq(User.class), any())).thenReturn(disabled);
+        loginService.invalidateObject(false, User.class, 1, ObjectOperation.UPDATE);
+
+        assertThrows(SecurityException.class, () -> loginService.login(TOKEN));
+    }
+
+}
@@ -9,6 +9,7 @@ import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.Instant;
+import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -241,4 +242,67 @@ public class CalendarTest {
         assertTrue(calendar.checkMoment(format.parse("2025-10-09 10:00:00+04")));
     }
 
+    @Test
+    public void testIntervalIndex() throws IOException, ParserException, ParseException {
+        String calendarString = """
+                BEGIN:VCALENDAR
+                VERSION:2.0
+                PRODID:-//Traccar//NONSGML Traccar//EN
+                BEGIN:VEVENT
+                UID:weekdays@example.com
+                DTSTART;TZID=Europe/Berlin:20250106T080000
+                DTEND;TZID=Europe/Berlin:20250106T123000
+                RRULE:FREQ=WEEKLY;BYDAY=MO,TU,WE,TH,FR;UNTIL=20261231T000000Z
+                EXDATE;TZID=Europe/Berlin:20250303T080000,20250304T080000
+                SUMMARY:Weekday mornings
+                END:VEVENT
+                BEGIN:VEVENT
+                UID:shifts@example.com
+                DTSTART;TZID=Europe/Berlin:20250106T120000
+                DTEND;TZID=Europe/Berlin:20250106T170000
+                RRULE:FREQ=DAILY;INTERVAL=2;BYHOUR=12,20
+                SUMMARY:Overlapping shifts
+                END:VEVENT
+                BEGIN:VEVENT
+                UID:monthly@example.com
+                DTSTART:20250101
+                DTEND:20250102
+                RRULE:FREQ=MONTHLY;BYDAY=1MO,-1FR
+                SUMMARY:Monthly days
+                END:VEVENT
+                END:VCALENDAR""";
+        Calendar calendar = new Calendar();
+        calendar.setData(calendarString.getBytes());
+        DateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ssX");
+
+        long start = format.parse("2025-02-20 00:00:00+00").getTime();
+        long step = 7 * 60 * 1000 + 13 * 1000;
+        int count = 1000;
+
+        for (int i = 0; i < count; i++) {
+            Date time = new Date(start + i * step);
+            assertEquals(!calendar.findPeriods(time).isEmpty(), calendar.checkMoment(time));
+        }
+        assertTrue(calendar.checkMoment(format.parse("2025-03-03 12:45:00+01")));
+        assertFalse(calendar.checkMoment(format.parse("2025-03-04 09:00:00+01")));
+        assertEquals(
+                !calendar.findPeriods(format.parse("2025-02-21 08:00:00+01")).isEmpty(),
+                calendar.checkMoment(format.parse("2025-02-21 08:00:00+01")));
+        assertEquals(
+                !calendar.findPeriods(format.parse("2025-02-20 12:00:00+00")).isEmpty(),
+                calendar.checkMoment(format.parse("2025-02-20 12:00:00+00")));
+
+        calendar.setData("""
+                BEGIN:VCALENDAR
+                VERSION:2.0
+                BEGIN:VEVENT
+                UID:single@example.com
+                DTSTART:20250220T000000Z
+                DTEND:20250220T010000Z
+                END:VEVENT
+                END:VCALENDAR""".getBytes());
+        assertTrue(calendar.checkMoment(format.parse("2025-02-20 00:30:00+00")));
+        assertFalse(calendar.checkMoment(format.parse("2025-02-20 01:30:00+00")));
+    }
+
 }
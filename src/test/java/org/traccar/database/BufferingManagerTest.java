@@ -0,0 +1,69 @@
+package org.traccar.database;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Position;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BufferingManagerTest {
+
+    private Position createPosition(long deviceId, Date time) {
+        Position position = new Position();
+        position.setDeviceId(deviceId);
+        position.setFixTime(time);
+        position.setDeviceTime(time);
+        position.setServerTime(time);
+        return position;
+    }
+
+    @Test
+    public void testEqualTimes() throws Exception {
+        Config config = new Config();
+        config.setString(Keys.SERVER_BUFFERING_THRESHOLD, "50");
+
+        ChannelHandlerContext context = mock(ChannelHandlerContext.class);
+        when(context.executor()).thenReturn(ImmediateEventExecutor.INSTANCE);
+
+        List<Position> released = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        BufferingManager bufferingManager = new BufferingManager(
+                config, mock(StatisticsManager.class), (ctx, position) -> {
+                    synchronized (released) {
+                        released.add(position);
+                    }
+                    latch.countDown();
+                });
+
+        Date time = new Date();
+        Position first = createPosition(1, time);
+        Position second = createPosition(1, time);
+        Position earlier = createPosition(1, new Date(time.getTime() - 1000));
+
+        bufferingManager.accept(context, first);
+        bufferingManager.accept(context, second);
+        bufferingManager.accept(context, earlier);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        synchronized (released) {
+            assertEquals(3, released.size());
+            assertSame(earlier, released.get(0));
+            assertSame(first, released.get(1));
+            assertSame(second, released.get(2));
+        }
+    }
+
+}
@@ -0,0 +1,162 @@
+package org.traccar.database;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Position;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PositionBatchWriterTest {
+
+    private static Config createConfig(long interval, int batchSize, int workers, int queueLimit) {
+        Config config = new Config();
+        config.setString(Keys.DATABASE_POSITION_BATCH_INTERVAL, String.valueOf(interval));
+        config.setString(Keys.DATABASE_POSITION_BATCH_SIZE, String.valueOf(batchSize));
+        config.setString(Keys.DATABASE_POSITION_BATCH_WORKERS, String.valueOf(workers));
+        config.setString(Keys.DATABASE_POSITION_BATCH_QUEUE_LIMIT, String.valueOf(queueLimit));
+        return config;
+    }
+
+    private static Position createPosition(long deviceId) {
+        Position position = new Position();
+        position.setDeviceId(deviceId);
+        return position;
+    }
+
+    private static List<Long> assignIds(List<?> positions, AtomicLong sequence) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < positions.size(); i++) {
+            ids.add(sequence.incrementAndGet());
+        }
+        return ids;
+    }
+
+    @Test
+    public void testBatchSizeFlush() throws Exception {
+        Storage storage = mock(Storage.class);
+        List<Integer> batches = new ArrayList<>();
+        AtomicLong sequence = new AtomicLong();
+        when(storage.addObjects(anyList(), any())).thenAnswer(invocation -> {
+            List<?> positions = invocation.getArgument(0);
+            synchronized (batches) {
+                batches.add(positions.size());
+            }
+            return assignIds(positions, sequence);
+        });
+
+        var batchWriter = new PositionBatchWriter(
+                createConfig(60_000, 3, 1, 100), storage, mock(StatisticsManager.class));
+
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(batchWriter.submit(createPosition(1)));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i + 1, futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+        synchronized (batches) {
+            assertEquals(List.of(3), batches);
+        }
+    }
+
+    @Test
+    public void testDeviceOrder() throws Exception {
+        Storage storage = mock(Storage.class);
+        List<Position> written = new ArrayList<>();
+        AtomicLong sequence = new AtomicLong();
+        when(storage.addObjects(anyList(), any())).thenAnswer(invocation -> {
+            List<Position> positions = invocation.getArgument(0);
+            synchronized (written) {
+                written.addAll(positions);
+            }
+            return assignIds(positions, sequence);
+        });
+
+        var batchWriter = new PositionBatchWriter(
+                createConfig(10, 7, 4, 1000), storage, mock(StatisticsManager.class));
+
+        List<Position> submitted = new ArrayList<>();
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Position position = createPosition(i % 5);
+            submitted.add(position);
+            futures.add(batchWriter.submit(position));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        synchronized (written) {
+            assertEquals(submitted.size(), written.size());
+            for (long deviceId = 0; deviceId < 5; deviceId++) {
+                long id = deviceId;
+                assertEquals(
+                        submitted.stream().filter(p -> p.getDeviceId() == id).toList(),
+                        written.stream().filter(p -> p.getDeviceId() == id).toList());
+            }
+        }
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        Storage storage = mock(Storage.class);
+        StorageException error = new StorageException("failed");
+        when(storage.addObjects(anyList(), any())).thenThrow(error);
+
+        var batchWriter = new PositionBatchWriter(
+                createConfig(10, 10, 1, 100), storage, mock(StatisticsManager.class));
+
+        CompletableFuture<Long> first = batchWriter.submit(createPosition(1));
+        CompletableFuture<Long> second = batchWriter.submit(createPosition(2));
+
+        for (CompletableFuture<Long> future : List.of(first, second)) {
+            var exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertSame(error, exception.getCause());
+        }
+    }
+
+    @Test
+    public void testOverload() throws Exception {
+        Storage storage = mock(Storage.class);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong sequence = new AtomicLong();
+        when(storage.addObjects(anyList(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return assignIds(invocation.getArgument(0), sequence);
+        });
+
+        var batchWriter = new PositionBatchWriter(
+                createConfig(10, 10, 1, 2), storage, mock(StatisticsManager.class));
+
+        batchWriter.submit(createPosition(1));
+        CompletableFuture<Long> last = batchWriter.submit(createPosition(1));
+        assertTrue(batchWriter.isOverloaded());
+
+        CountDownLatch resumed = new CountDownLatch(1);
+        batchWriter.whenAvailable(resumed::countDown);
+        assertFalse(resumed.await(100, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        assertTrue(resumed.await(5, TimeUnit.SECONDS));
+        assertEquals(2, last.get(5, TimeUnit.SECONDS));
+        assertFalse(batchWriter.isOverloaded());
+    }
+
+}
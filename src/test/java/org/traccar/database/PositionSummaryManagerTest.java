@@ -0,0 +1,255 @@
+package org.traccar.database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Position;
+import org.traccar.model.PositionSummary;
+import org.traccar.session.cache.CacheManager;
+import org.traccar.storage.Storage;
+import org.traccar.storage.query.Request;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PositionSummaryManagerTest {
+
+    private static final long HOUR = PositionSummaryManager.PERIOD;
+    private static final long START = 1700006400000L;
+
+    private Storage storage;
+    private List<PositionSummary> stored;
+    private List<Position> storedPositions;
+    private long hour;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        storage = mock(Storage.class);
+        stored = new ArrayList<>();
+        storedPositions = new ArrayList<>();
+        when(storage.getObjects(eq(PositionSummary.class), any())).thenAnswer(invocation -> List.copyOf(stored));
+        when(storage.getObjectsStream(eq(Position.class), any())).thenAnswer(invocation -> storedPositions.stream());
+        hour = PositionSummaryManager.getPeriodStart(System.currentTimeMillis());
+    }
+
+    private PositionSummaryManager createManager() {
+        Config config = new Config();
+        config.setString(Keys.REPORT_SUMMARY_BACKFILL, String.valueOf(24 * HOUR / 1000));
+        return new PositionSummaryManager(config, storage, mock(CacheManager.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<PositionSummary>> captureWrites(int count) throws Exception {
+        ArgumentCaptor<List<PositionSummary>> captor = ArgumentCaptor.forClass(List.class);
+        verify(storage, times(count)).addObjects(captor.capture(), any(Request.class));
+        return captor.getAllValues();
+    }
+
+    private static PositionSummary summary(long start, long end, long positionId) {
+        PositionSummary summary = new PositionSummary();
+        summary.setDeviceId(1);
+        summary.setPeriodStart(new Date(start));
+        summary.setPeriodEnd(new Date(end));
+        summary.setFirstPositionId(positionId);
+        summary.setLastPositionId(positionId);
+        return summary;
+    }
+
+    private static void assertRange(PositionSummary summary, long start, long end, boolean positions) {
+        assertEquals(start, summary.getPeriodStart().getTime());
+        assertEquals(end, summary.getPeriodEnd().getTime());
+        assertEquals(positions, summary.hasPositions());
+    }
+
+    private Position position(long id, long time, double speed) {
+        Position position = new Position();
+        position.setId(id);
+        position.setDeviceId(1);
+        position.setTime(new Date(time));
+        position.setSpeed(speed);
+        return position;
+    }
+
+    @Test
+    public void testPeriodStart() {
+        assertEquals(START, PositionSummaryManager.getPeriodStart(START));
+        assertEquals(START, PositionSummaryManager.getPeriodStart(START + HOUR - 1));
+        assertEquals(START - HOUR, PositionSummaryManager.getPeriodStart(START - 1));
+    }
+
+    @Test
+    public void testSummarize() {
+        var positions = List.of(
+                position(1, START - 1000, 50),
+                position(2, START + 1000, 10),
+                position(3, START + 2000, 30),
+                position(4, START + 3000, 20),
+                position(5, START + 3 * HOUR + 1000, 5),
+                position(6, START + 5 * HOUR, 60));
+
+        List<PositionSummary> summaries = PositionSummaryManager.summarize(
+                1, START, START + 5 * HOUR, positions.iterator());
+
+        assertEquals(4, summaries.size());
+
+        PositionSummary first = summaries.get(0);
+        assertTrue(first.hasPositions());
+        assertEquals(START, first.getPeriodStart().getTime());
+        assertEquals(START + HOUR, first.getPeriodEnd().getTime());
+        assertEquals(2, first.getFirstPositionId());
+        assertEquals(4, first.getLastPositionId());
+        assertEquals(30, first.getMaxSpeed());
+
+        PositionSummary empty = summaries.get(1);
+        assertFalse(empty.hasPositions());
+        assertEquals(START + HOUR, empty.getPeriodStart().getTime());
+        assertEquals(START + 3 * HOUR, empty.getPeriodEnd().getTime());
+
+        PositionSummary last = summaries.get(2);
+        assertEquals(5, last.getFirstPositionId());
+        assertEquals(5, last.getLastPositionId());
+        assertEquals(START + 4 * HOUR, last.getPeriodEnd().getTime());
+
+        PositionSummary tail = summaries.get(3);
+        assertFalse(tail.hasPositions());
+        assertEquals(START + 5 * HOUR, tail.getPeriodEnd().getTime());
+    }
+
+    @Test
+    public void testSummarizeEmpty() {
+        List<PositionSummary> summaries = PositionSummaryManager.summarize(
+                1, START, START + 24 * HOUR, List.<Position>of().iterator());
+
+        assertEquals(1, summaries.size());
+        assertFalse(summaries.get(0).hasPositions());
+        assertEquals(START, summaries.get(0).getPeriodStart().getTime());
+        assertEquals(START + 24 * HOUR, summaries.get(0).getPeriodEnd().getTime());
+    }
+
+    @Test
+    public void testUpdateAndFlush() throws Exception {
+        var manager = createManager();
+        Position first = position(1, hour - 3 * HOUR + 1000, 10);
+        Position second = position(2, hour - 2 * HOUR + 1000, 20);
+        Position late = position(3, hour - 3 * HOUR + 2000, 30);
+        storedPositions.addAll(List.of(first, late));
+
+        manager.update(first);
+        manager.update(second);
+        manager.update(late);
+        manager.flush();
+
+        var writes = captureWrites(3);
+
+        assertEquals(1, writes.get(0).size());
+        assertRange(writes.get(0).get(0), hour - 3 * HOUR, hour - 2 * HOUR, true);
+        assertEquals(1, writes.get(0).get(0).getFirstPositionId());
+
+        assertEquals(1, writes.get(1).size());
+        assertRange(writes.get(1).get(0), hour - 2 * HOUR, hour - HOUR, true);
+        assertEquals(2, writes.get(1).get(0).getFirstPositionId());
+        assertEquals(20, writes.get(1).get(0).getMaxSpeed());
+
+        assertEquals(1, writes.get(2).size());
+        assertRange(writes.get(2).get(0), hour - 3 * HOUR, hour - 2 * HOUR, true);
+        assertEquals(3, writes.get(2).get(0).getLastPositionId());
+        assertEquals(30, writes.get(2).get(0).getMaxSpeed());
+    }
+
+    @Test
+    public void testFlushIdle() throws Exception {
+        var manager = createManager();
+        Position position = position(1, hour - 5 * HOUR + 1000, 10);
+        storedPositions.add(position);
+
+        manager.update(position);
+        manager.flush();
+        manager.flush();
+
+        var writes = captureWrites(1);
+        assertEquals(2, writes.get(0).size());
+        assertRange(writes.get(0).get(0), hour - 5 * HOUR, hour - 4 * HOUR, true);
+        assertRange(writes.get(0).get(1), hour - 4 * HOUR, hour - HOUR, false);
+
+        manager.update(position(2, hour + 1000, 10));
+        manager.flush();
+
+        writes = captureWrites(2);
+        assertEquals(1, writes.get(1).size());
+        assertRange(writes.get(1).get(0), hour - HOUR, hour, false);
+    }
+
+    @Test
+    public void testReplaceSplitsEmptyRows() throws Exception {
+        var manager = createManager();
+        Position position = position(2, hour - 5 * HOUR + 1000, 10);
+        storedPositions.add(position);
+        stored.add(summary(hour - 10 * HOUR, hour - HOUR, 0));
+
+        manager.update(position(1, hour + 1000, 10));
+        manager.update(position);
+        manager.flush();
+
+        verify(storage).removeObject(eq(PositionSummary.class), any());
+        var writes = captureWrites(1);
+        assertEquals(3, writes.get(0).size());
+        assertRange(writes.get(0).get(0), hour - 10 * HOUR, hour - 5 * HOUR, false);
+        assertRange(writes.get(0).get(1), hour - 4 * HOUR, hour - HOUR, false);
+        assertRange(writes.get(0).get(2), hour - 5 * HOUR, hour - 4 * HOUR, true);
+    }
+
+    @Test
+    public void testBackfillResume() throws Exception {
+        when(storage.getObject(eq(PositionSummary.class), any())).thenReturn(
+                summary(hour - 8 * HOUR, hour - 6 * HOUR, 0));
+        var manager = createManager();
+
+        manager.backfill(1);
+        manager.backfill(1);
+
+        var writes = captureWrites(1);
+        assertEquals(1, writes.get(0).size());
+        assertRange(writes.get(0).get(0), hour - 6 * HOUR, hour - HOUR, false);
+    }
+
+    @Test
+    public void testBackfillStored() throws Exception {
+        stored.add(summary(hour - 25 * HOUR, hour - HOUR, 0));
+        var manager = createManager();
+
+        manager.backfill(1);
+
+        verify(storage, never()).addObjects(any(), any());
+    }
+
+    @Test
+    public void testResolveOverlaps() {
+        var summaries = PositionSummaryManager.resolveOverlaps(1, List.of(
+                summary(START, START + 4 * HOUR, 0),
+                summary(START + 2 * HOUR, START + 3 * HOUR, 5),
+                summary(START + 2 * HOUR, START + 3 * HOUR, 6),
+                summary(START + HOUR, START + 3 * HOUR, 0)));
+
+        assertEquals(3, summaries.size());
+        assertRange(summaries.get(0), START, START + 2 * HOUR, false);
+        assertRange(summaries.get(1), START + 2 * HOUR, START + 3 * HOUR, true);
+        assertEquals(5, summaries.get(1).getFirstPositionId());
+        assertRange(summaries.get(2), START + 3 * HOUR, START + 4 * HOUR, false);
+    }
+
+}
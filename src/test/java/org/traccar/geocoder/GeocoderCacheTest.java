@@ -0,0 +1,163 @@
+package org.traccar.geocoder;
+
+import com.sun.net.httpserver.HttpServer;
+import jakarta.json.JsonObject;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GeocoderCacheTest {
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private static long decode(String geohash) {
+        long hash = 0;
+        for (char c : geohash.toCharArray()) {
+            hash = hash << 5 | BASE32.indexOf(c);
+        }
+        return hash << 4 | geohash.length();
+    }
+
+    @Test
+    public void testEncode() {
+        assertEquals(decode("u4pruydqqvj"), GeocoderCache.encode(57.64911, 10.40744, 11));
+        assertEquals(decode("ezs42"), GeocoderCache.encode(42.6, -5.6, 5));
+        assertEquals(
+                GeocoderCache.encode(57.64911, 10.40744, 8), GeocoderCache.encode(57.64912, 10.40745, 8));
+        assertNotEquals(
+                GeocoderCache.encode(57.64911, 10.40744, 5), GeocoderCache.encode(57.64911, 10.40744, 6));
+    }
+
+    @Test
+    public void testEviction() {
+        GeocoderCache cache = new GeocoderCache(100, 12, null);
+        cache.put(0, "referenced");
+        for (long i = 1; i < 1000; i++) {
+            cache.get(0);
+            cache.put(i, "address " + i);
+        }
+        assertEquals(100, cache.size());
+        assertEquals("referenced", cache.get(0));
+        assertEquals("address 999", cache.get(999));
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testPersistence(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("geocoder.cache");
+        GeocoderCache cache = new GeocoderCache(10, 8, file);
+        for (long i = 0; i < 20; i++) {
+            cache.put(i, "address " + i);
+        }
+        cache.flush();
+        long size = Files.size(file);
+        for (long i = 20; i < 1000; i++) {
+            cache.put(i, "address " + i);
+        }
+        cache.flush();
+        assertTrue(Files.size(file) < size * 2);
+
+        String longAddress = "a".repeat(70_000);
+        cache.put(1000, longAddress);
+        cache.stop();
+
+        GeocoderCache restored = new GeocoderCache(10, 8, file);
+        assertEquals(10, restored.size());
+        assertEquals(longAddress, restored.get(1000));
+
+        GeocoderCache other = new GeocoderCache(10, 9, file);
+        assertEquals(0, other.size());
+    }
+
+    @Test
+    public void testReopen(@TempDir Path directory) {
+        Path file = directory.resolve("geocoder.cache");
+        GeocoderCache cache = new GeocoderCache(10, 8, file);
+        cache.start();
+        cache.put(1, "address");
+        cache.stop();
+
+        assertEquals("address", new GeocoderCache(10, 8, file).get(1));
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/reverse", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = "{\"street\":\"Main Street\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+
+        try {
+            Client client = ClientBuilder.newClient();
+            String url = "http://localhost:" + server.getAddress().getPort() + "/reverse?lat=%f&lon=%f";
+            JsonGeocoder geocoder = new JsonGeocoder(client, url, 0, new AddressFormat("%r")) {
+                @Override
+                public Address parseAddress(JsonObject json) {
+                    Address address = new Address();
+                    address.setStreet(json.getString("street"));
+                    return address;
+                }
+            };
+            geocoder.setCache(new GeocoderCache(100, 8, null));
+
+            int count = 10;
+            List<String> results = new CopyOnWriteArrayList<>();
+            CountDownLatch latch = new CountDownLatch(count);
+            for (int i = 0; i < count; i++) {
+                geocoder.getAddress(57.64911 + i * 0.000001, 10.40744, new Geocoder.ReverseGeocoderCallback() {
+                    @Override
+                    public void onSuccess(String address) {
+                        results.add(address);
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onFailure(Throwable e) {
+                        latch.countDown();
+                    }
+                });
+            }
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            assertEquals(count, results.size());
+            results.forEach(result -> assertEquals("Main Street", result));
+            assertEquals(1, requests.get());
+
+            assertNotNull(geocoder.getAddress(57.64911, 10.40744, null));
+            assertEquals(1, requests.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+}
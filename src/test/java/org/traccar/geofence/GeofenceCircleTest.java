@@ -24,4 +24,11 @@ public class GeofenceCircleTest {
         assertFalse(geofenceGeometry.containsPoint(55.75545, 37.61921));
     }
 
+    @Test
+    public void testContainsAcrossAntimeridian() throws ParseException {
+        GeofenceGeometry geofenceGeometry = new GeofenceCircle("CIRCLE (10 179.9, 50000)");
+        assertTrue(geofenceGeometry.containsPoint(10, -179.9));
+        assertFalse(geofenceGeometry.containsPoint(10, -179));
+    }
+
 }
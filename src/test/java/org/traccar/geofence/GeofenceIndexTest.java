@@ -0,0 +1,129 @@
+package org.traccar.geofence;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GeofenceIndexTest {
+
+    private static GeofenceGeometry createPolygon(Random random) throws ParseException {
+        double lat = random.nextDouble() * 160 - 80;
+        double lon = random.nextDouble() * 358 - 179;
+        double size = 0.001 + random.nextDouble() * random.nextDouble() * 0.5;
+        StringBuilder wkt = new StringBuilder("POLYGON ((");
+        int corners = 5 + random.nextInt(10);
+        for (int i = 0; i < corners; i++) {
+            double angle = 2 * Math.PI * i / corners;
+            double radius = size * (0.5 + random.nextDouble() * 0.5);
+            if (i > 0) {
+                wkt.append(", ");
+            }
+            wkt.append(lat + radius * Math.sin(angle)).append(' ').append(lon + radius * Math.cos(angle));
+        }
+        return new GeofencePolygon(wkt.append("))").toString());
+    }
+
+    @Test
+    public void testMatchesLinearScan() throws ParseException {
+
+        Random random = new Random(42);
+        List<GeofenceGeometry> geometries = new ArrayList<>();
+        GeofenceIndex<GeofenceGeometry> index = new GeofenceIndex<>();
+        for (int i = 0; i < 1000; i++) {
+            GeofenceGeometry geometry = createPolygon(random);
+            geometries.add(geometry);
+            index.put(geometry, geometry);
+        }
+        GeofenceGeometry circle = new GeofenceCircle("CIRCLE (10 20, 50000)");
+        geometries.add(circle);
+        index.put(circle, circle);
+        GeofenceGeometry antimeridian = new GeofencePolygon(
+                "POLYGON ((66.9494 179.838, 66.9508 -179.8496, 66.8406 -180.0014))");
+        geometries.add(antimeridian);
+        index.put(antimeridian, antimeridian);
+        GeofenceGeometry antimeridianCircle = new GeofenceCircle("CIRCLE (10 179.9, 50000)");
+        geometries.add(antimeridianCircle);
+        index.put(antimeridianCircle, antimeridianCircle);
+
+        int points = 2000;
+        double[] latitudes = new double[points];
+        double[] longitudes = new double[points];
+        for (int i = 0; i < points; i++) {
+            GeofenceGeometry target = geometries.get(random.nextInt(geometries.size() - 3));
+            if (i % 2 == 0) {
+                latitudes[i] = (target.getMin().lat() + target.getMax().lat()) / 2;
+                longitudes[i] = (target.getMin().lon() + target.getMax().lon()) / 2;
+            } else {
+                latitudes[i] = random.nextDouble() * 180 - 90;
+                longitudes[i] = random.nextDouble() * 360 - 180;
+            }
+        }
+        latitudes[0] = 10.1;
+        longitudes[0] = 20.1;
+        latitudes[1] = 66.9015;
+        longitudes[1] = -180.0096;
+        latitudes[2] = 10;
+        longitudes[2] = -179.9;
+
+        List<Set<GeofenceGeometry>> expected = new ArrayList<>();
+        for (int i = 0; i < points; i++) {
+            Set<GeofenceGeometry> result = new HashSet<>();
+            for (GeofenceGeometry geometry : geometries) {
+                if (geometry.containsPoint(latitudes[i], longitudes[i])) {
+                    result.add(geometry);
+                }
+            }
+            expected.add(result);
+        }
+
+        List<Set<GeofenceGeometry>> actual = new ArrayList<>();
+        for (int i = 0; i < points; i++) {
+            double latitude = latitudes[i];
+            double longitude = longitudes[i];
+            Set<GeofenceGeometry> result = new HashSet<>();
+            index.query(latitude, longitude, geometry -> {
+                if (geometry.containsPoint(latitude, longitude)) {
+                    result.add(geometry);
+                }
+            });
+            actual.add(result);
+        }
+
+        assertEquals(expected, actual);
+        assertTrue(actual.get(0).contains(circle));
+        assertTrue(actual.get(1).contains(antimeridian));
+        assertTrue(actual.get(2).contains(antimeridianCircle));
+    }
+
+    @Test
+    public void testUpdate() throws ParseException {
+
+        GeofenceIndex<String> index = new GeofenceIndex<>();
+        index.put("a", new GeofencePolygon("POLYGON ((10 10, 10 11, 11 11, 11 10))"));
+        index.put("b", null);
+
+        Set<String> result = new HashSet<>();
+        index.query(10.5, 10.5, result::add);
+        assertEquals(Set.of("a", "b"), result);
+
+        index.put("a", new GeofencePolygon("POLYGON ((20 20, 20 21, 21 21, 21 20))"));
+        result.clear();
+        index.query(10.5, 10.5, result::add);
+        assertEquals(Set.of("b"), result);
+
+        index.remove("a");
+        index.remove("b");
+        assertEquals(0, index.size());
+        assertFalse(index.contains("a"));
+    }
+
+}
@@ -3,6 +3,8 @@ package org.traccar.geofence;
 import org.junit.jupiter.api.Test;
 
 import java.text.ParseException;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -49,4 +51,98 @@ public class GeofencePolygonTest {
         assertFalse(geofenceGeometry.containsPoint(50.9477, 0.5836));
     }
 
+    private static String createWkt(Random random, int corners, double lat, double lon, double size) {
+        StringBuilder wkt = new StringBuilder("POLYGON ((");
+        for (int i = 0; i < corners; i++) {
+            double angle = 2 * Math.PI * i / corners;
+            double radius = size * (0.3 + random.nextDouble() * 0.7);
+            if (i > 0) {
+                wkt.append(", ");
+            }
+            wkt.append(lat + radius * Math.sin(angle)).append(' ').append(lon + radius * Math.cos(angle));
+        }
+        return wkt.append("))").toString();
+    }
+
+    private static boolean legacyContains(List<GeofenceGeometry.Coordinate> coordinates, double lat, double lon) {
+        boolean hasNegative = false;
+        boolean hasPositive = false;
+        for (var coordinate : coordinates) {
+            if (coordinate.lon() > 90) {
+                hasPositive = true;
+            } else if (coordinate.lon() < -90) {
+                hasNegative = true;
+            }
+        }
+        boolean normalize = hasPositive && hasNegative;
+        int n = coordinates.size();
+        double[] nlon = new double[n];
+        for (int i = 0; i < n; i++) {
+            double value = coordinates.get(i).lon();
+            nlon[i] = normalize && value < -90 ? value + 360 : value;
+        }
+        double x = normalize && lon < -90 ? lon + 360 : lon;
+        boolean oddNodes = false;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            if (nlon[i] < x && nlon[j] >= x || nlon[j] < x && nlon[i] >= x) {
+                double constant;
+                double multiple;
+                if (nlon[j] == nlon[i]) {
+                    constant = coordinates.get(i).lon();
+                    multiple = 0;
+                } else {
+                    double latI = coordinates.get(i).lat();
+                    double latJ = coordinates.get(j).lat();
+                    constant = latI - (nlon[i] * latJ) / (nlon[j] - nlon[i]) + (nlon[i] * latI) / (nlon[j] - nlon[i]);
+                    multiple = (latJ - latI) / (nlon[j] - nlon[i]);
+                }
+                oddNodes ^= x * multiple + constant < lat;
+            }
+        }
+        return oddNodes;
+    }
+
+    @Test
+    public void testContainsMatchesLegacy() throws ParseException {
+        Random random = new Random(7);
+        for (int polygon = 0; polygon < 200; polygon++) {
+            int corners = 3 + random.nextInt(polygon < 100 ? 40 : 2000);
+            double lat = random.nextDouble() * 120 - 60;
+            double lon = polygon % 10 == 0 ? 179.9 : random.nextDouble() * 340 - 170;
+            double size = 0.01 + random.nextDouble() * 5;
+            String wkt = createWkt(random, corners, lat, lon, size);
+            GeofencePolygon geometry = new GeofencePolygon(wkt);
+            var coordinates = geometry.fromWkt(wkt);
+            for (int point = 0; point < 500; point++) {
+                double pointLat = lat + (random.nextDouble() * 2 - 1) * size * 1.2;
+                double pointLon = lon + (random.nextDouble() * 2 - 1) * size * 1.2;
+                if (pointLon > 180) {
+                    pointLon -= 360;
+                }
+                if (point % 50 == 0) {
+                    var vertex = coordinates.get(random.nextInt(coordinates.size()));
+                    pointLat = vertex.lat();
+                    pointLon = vertex.lon();
+                }
+                assertEquals(
+                        legacyContains(coordinates, pointLat, pointLon),
+                        geometry.containsPointInternal(pointLat, pointLon));
+            }
+        }
+    }
+
+    @Test
+    public void testContainsLargePolygon() throws ParseException {
+        Random random = new Random(11);
+        String wkt = createWkt(random, 2000, 48, 11, 2);
+        GeofencePolygon geometry = new GeofencePolygon(wkt);
+        var coordinates = geometry.fromWkt(wkt);
+
+        for (int i = 0; i < 500; i++) {
+            double latitude = 48 + (random.nextDouble() * 2 - 1) * 2;
+            double longitude = 11 + (random.nextDouble() * 2 - 1) * 2;
+            assertEquals(legacyContains(coordinates, latitude, longitude), geometry.containsPoint(latitude, longitude));
+        }
+    }
+
 }
@@ -3,11 +3,15 @@ package org.traccar.handler;
 import org.junit.jupiter.api.Test;
 import org.traccar.config.Config;
 import org.traccar.model.Attribute;
+import org.traccar.model.ObjectOperation;
 import org.traccar.model.Position;
 
+import java.lang.management.ManagementFactory;
 import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class ComputedAttributesProviderTest {
 
@@ -68,4 +72,70 @@ public class ComputedAttributesProviderTest {
 
     }
 
+    @Test
+    public void testCachedScripts() {
+
+        ComputedAttributesProvider provider = new ComputedAttributesProvider(new Config(), null);
+
+        Position position = new Position();
+        position.setSpeed(42);
+
+        Attribute attribute = new Attribute();
+        attribute.setId(1);
+
+        attribute.setExpression("speed");
+        assertEquals(42.0, provider.compute(attribute, position));
+
+        attribute.setExpression("speed * 2");
+        assertEquals(84.0, provider.compute(attribute, position));
+
+        provider.invalidateObject(true, Attribute.class, 1, ObjectOperation.UPDATE);
+        assertEquals(84.0, provider.compute(attribute, position));
+
+    }
+
+    private static Position createPosition(int attributeCount) {
+        Position position = new Position();
+        position.setTime(new Date());
+        position.setSpeed(42);
+        for (int i = 0; i < attributeCount; i++) {
+            position.set("io" + i, i);
+        }
+        return position;
+    }
+
+    private static long measureAllocation(
+            com.sun.management.ThreadMXBean threadBean, ComputedAttributesProvider provider,
+            Attribute attribute, Position position) {
+        int iterations = 10000;
+        for (int i = 0; i < iterations; i++) {
+            provider.compute(attribute, position);
+        }
+        long start = threadBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            provider.compute(attribute, position);
+        }
+        return (threadBean.getCurrentThreadAllocatedBytes() - start) / iterations;
+    }
+
+    @Test
+    public void testContextAllocation() {
+
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+        ComputedAttributesProvider provider = new ComputedAttributesProvider(new Config(), null);
+
+        Attribute attribute = new Attribute();
+        attribute.setId(1);
+        attribute.setExpression("speed > 5");
+
+        long small = measureAllocation(threadBean, provider, attribute, createPosition(2));
+        long large = measureAllocation(threadBean, provider, attribute, createPosition(500));
+
+        assertTrue(large - small < 1024, "Allocation grows with position attributes: " + small + " vs " + large);
+
+    }
+
 }
@@ -2,19 +2,39 @@ package org.traccar.handler.events;
 
 import org.junit.jupiter.api.Test;
 import org.traccar.BaseTest;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Device;
 import org.traccar.model.Event;
+import org.traccar.model.MotionSegment;
 import org.traccar.model.Position;
+import org.traccar.model.Server;
 import org.traccar.reports.common.TripsConfig;
+import org.traccar.session.cache.CacheManager;
 import org.traccar.session.state.MotionProcessor;
 import org.traccar.session.state.MotionState;
+import org.traccar.storage.Storage;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Request;
 
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class MotionEventHandlerTest extends BaseTest {
 
@@ -149,4 +169,101 @@ public class MotionEventHandlerTest extends BaseTest {
         assertNull(state.getEvent());
     }
 
+
+    private Position storedPosition(
+            Map<Long, Position> positions, long id, String time, boolean motion, double distance)
+            throws ParseException {
+        Position position = position(time, motion, distance, null);
+        position.setId(id);
+        position.setDeviceId(1);
+        positions.put(id, position);
+        return position;
+    }
+
+    private MotionEventHandler createHandler(
+            Device device, Storage storage, Map<Long, Position> positions, List<MotionSegment> segments)
+            throws Exception {
+        Config config = new Config();
+        config.setString(Keys.REPORT_TRIP_STORE, "true");
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getConfig()).thenReturn(config);
+        when(cacheManager.getServer()).thenReturn(new Server());
+        when(cacheManager.getObject(eq(Device.class), anyLong())).thenReturn(device);
+        when(storage.getObject(eq(Position.class), any())).thenAnswer(invocation -> {
+            Request request = invocation.getArgument(1);
+            return positions.get((Long) ((Condition.Equals) request.getCondition()).getValue());
+        });
+        when(storage.addObject(any(MotionSegment.class), any())).thenAnswer(invocation -> {
+            segments.add(invocation.getArgument(0));
+            return 0L;
+        });
+        return new MotionEventHandler(config, cacheManager, storage);
+    }
+
+    @Test
+    public void testStoreSegments() throws Exception {
+        Device device = new Device();
+        device.setId(1);
+        Map<Long, Position> positions = new HashMap<>();
+        List<MotionSegment> segments = new ArrayList<>();
+        MotionEventHandler handler = createHandler(device, mock(Storage.class), positions, segments);
+        List<Event> events = new ArrayList<>();
+
+        handler.onPosition(storedPosition(positions, 1, "2017-01-01 00:00:00", true, 0), events::add);
+        handler.onPosition(storedPosition(positions, 2, "2017-01-01 00:01:00", true, 1000), events::add);
+        Position stop = storedPosition(positions, 3, "2017-01-01 00:10:00", false, 5000);
+        stop.setSpeed(20);
+        handler.onPosition(stop, events::add);
+        handler.onPosition(storedPosition(positions, 4, "2017-01-01 00:20:00", false, 5000), events::add);
+
+        assertEquals(2, events.size());
+        assertEquals(1, segments.size());
+        MotionSegment trip = segments.getFirst();
+        assertTrue(trip.getMotion());
+        assertEquals(1, trip.getStartPositionId());
+        assertEquals(3, trip.getEndPositionId());
+        assertEquals(5000, trip.getDistance(), 0.1);
+        assertEquals(600000, trip.getDuration());
+        assertEquals(20, trip.getMaxSpeed(), 0.1);
+    }
+
+    private List<MotionSegment> replayAfterRestart(long lastEventPositionId) throws Exception {
+        Device device = new Device();
+        device.setId(1);
+        Map<Long, Position> positions = new HashMap<>();
+        List<MotionSegment> segments = new ArrayList<>();
+        Storage storage = mock(Storage.class);
+        MotionEventHandler handler = createHandler(device, storage, positions, segments);
+
+        storedPosition(positions, 3, "2017-01-01 00:10:00", false, 5000);
+        MotionSegment last = new MotionSegment();
+        last.setDeviceId(1);
+        last.setMotion(true);
+        last.setStartPositionId(1);
+        last.setEndPositionId(3);
+        when(storage.getObject(eq(MotionSegment.class), any())).thenReturn(last);
+        Event lastEvent = new Event(Event.TYPE_DEVICE_STOPPED, 1);
+        lastEvent.setPositionId(lastEventPositionId);
+        when(storage.getObject(eq(Event.class), any())).thenReturn(lastEvent);
+
+        handler.onPosition(storedPosition(positions, 5, "2017-01-01 02:00:00", true, 5000), event -> { });
+        handler.onPosition(storedPosition(positions, 6, "2017-01-01 02:01:00", true, 6000), event -> { });
+        return segments;
+    }
+
+    @Test
+    public void testRestoreSegment() throws Exception {
+        List<MotionSegment> segments = replayAfterRestart(3);
+        assertEquals(1, segments.size());
+        MotionSegment stop = segments.getFirst();
+        assertFalse(stop.getMotion());
+        assertEquals(3, stop.getStartPositionId());
+        assertEquals(5, stop.getEndPositionId());
+    }
+
+    @Test
+    public void testRestoreStaleSegment() throws Exception {
+        assertTrue(replayAfterRestart(7).isEmpty());
+    }
+
 }
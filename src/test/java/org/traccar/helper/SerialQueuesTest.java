@@ -0,0 +1,92 @@
+package org.traccar.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SerialQueuesTest {
+
+    private record Item(int key, long sequence) {}
+
+    @Test
+    public void testOrdering() {
+        SerialQueues<String> queues = new SerialQueues<>();
+
+        assertTrue(queues.offer(1, "a"));
+        assertFalse(queues.offer(1, "b"));
+        assertTrue(queues.offer(2, "c"));
+        assertEquals(3, queues.size());
+        assertEquals(2, queues.activeKeys());
+
+        assertEquals("b", queues.next(1));
+        assertNull(queues.next(1));
+        assertNull(queues.next(2));
+        assertEquals(0, queues.size());
+        assertEquals(0, queues.activeKeys());
+
+        assertTrue(queues.offer(1, "d"));
+    }
+
+    @Test
+    public void testConcurrentDevices() throws Exception {
+        int producers = 8;
+        int keys = 1000;
+        int messagesPerKey = 20;
+
+        SerialQueues<Item> queues = new SerialQueues<>();
+        AtomicLongArray processed = new AtomicLongArray(keys);
+        AtomicIntegerArray active = new AtomicIntegerArray(keys);
+        AtomicBoolean failed = new AtomicBoolean();
+
+        ExecutorService workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        ExecutorService producerPool = Executors.newFixedThreadPool(producers);
+
+        for (int producer = 0; producer < producers; producer++) {
+            int offset = producer;
+            producerPool.execute(() -> {
+                for (long sequence = 0; sequence < messagesPerKey; sequence++) {
+                    for (int key = offset; key < keys; key += producers) {
+                        Item item = new Item(key, sequence);
+                        if (queues.offer(key, item)) {
+                            workers.execute(() -> {
+                                Item current = item;
+                                while (current != null) {
+                                    if (active.getAndIncrement(current.key()) != 0
+                                            || processed.get(current.key()) != current.sequence()) {
+                                        failed.set(true);
+                                    }
+                                    processed.incrementAndGet(current.key());
+                                    active.decrementAndGet(current.key());
+                                    current = queues.next(current.key());
+                                }
+                            });
+                        }
+                    }
+                }
+            });
+        }
+
+        producerPool.shutdown();
+        assertTrue(producerPool.awaitTermination(1, TimeUnit.MINUTES));
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertFalse(failed.get());
+        for (int key = 0; key < keys; key++) {
+            assertEquals(messagesPerKey, processed.get(key));
+        }
+        assertEquals(0, queues.size());
+        assertEquals(0, queues.activeKeys());
+    }
+
+}
@@ -1,12 +1,33 @@
 package org.traccar.mapmatcher;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timer;
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
+import org.traccar.handler.MapMatcherHandler;
+import org.traccar.model.Position;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -15,7 +36,132 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class MapMatcherTest {
 
+    private static final double OFFSET = 0.001;
+
     private final Client client = ClientBuilder.newClient();
+    private final Timer timer = new HashedWheelTimer();
+    private final AtomicInteger snapRequests = new AtomicInteger();
+    private final AtomicInteger batchRequests = new AtomicInteger();
+    private HttpServer server;
+
+    private static void respond(HttpExchange exchange, String response) throws IOException {
+        byte[] data = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, data.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(data);
+        }
+    }
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/snap", exchange -> {
+            snapRequests.incrementAndGet();
+            Map<String, String> query = new HashMap<>();
+            for (String parameter : exchange.getRequestURI().getQuery().split("&")) {
+                String[] pair = parameter.split("=", 2);
+                query.put(pair[0], pair.length > 1 ? pair[1] : "");
+            }
+            respond(exchange, Json.createObjectBuilder()
+                    .add("lat", Double.parseDouble(query.get("lat")) + OFFSET)
+                    .add("lon", Double.parseDouble(query.get("lon")) + OFFSET)
+                    .build().toString());
+        });
+        server.createContext("/batch", exchange -> {
+            batchRequests.incrementAndGet();
+            JsonArray points = Json.createReader(exchange.getRequestBody()).readArray();
+            JsonArrayBuilder builder = Json.createArrayBuilder();
+            for (JsonObject point : points.getValuesAs(JsonObject.class)) {
+                builder.add(Json.createObjectBuilder()
+                        .add("lat", point.getJsonNumber("lat").doubleValue() + OFFSET)
+                        .add("lon", point.getJsonNumber("lon").doubleValue() + OFFSET));
+            }
+            respond(exchange, builder.build().toString());
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+        timer.stop();
+    }
+
+    private String getUrl(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private Map<Integer, double[]> match(MapMatcher mapMatcher, double[][] points) throws InterruptedException {
+        Map<Integer, double[]> results = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(points.length);
+        for (int i = 0; i < points.length; i++) {
+            int index = i;
+            mapMatcher.getPoint(points[i][0], points[i][1], new MapMatcher.MapMatcherCallback() {
+                @Override
+                public void onSuccess(double latitude, double longitude) {
+                    results.put(index, new double[] {latitude, longitude});
+                    latch.countDown();
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        return results;
+    }
+
+    @Test
+    public void testBatch() throws InterruptedException {
+        MapMatcher mapMatcher = new BatchingMapMatcher(
+                new TraccarMapMatcher(client, getUrl("/snap"), "", getUrl("/batch")), timer, 100, 1000, 5);
+
+        double[][] points = new double[20][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new double[] {43.7 + i * 0.01, 7.4 + i * 0.01};
+        }
+        var results = match(mapMatcher, points);
+        assertEquals(points.length, results.size());
+        for (int i = 0; i < points.length; i++) {
+            assertEquals(points[i][0] + OFFSET, results.get(i)[0], 0.000001);
+            assertEquals(points[i][1] + OFFSET, results.get(i)[1], 0.000001);
+        }
+        assertEquals(1, batchRequests.get());
+        assertEquals(0, snapRequests.get());
+
+        results = match(mapMatcher, new double[][] {points[0]});
+        assertEquals(points[0][0] + OFFSET, results.get(0)[0], 0.000001);
+        assertEquals(1, batchRequests.get());
+    }
+
+    @Test
+    public void testSingleFallback() throws InterruptedException {
+        MapMatcher mapMatcher = new BatchingMapMatcher(
+                new TraccarMapMatcher(client, getUrl("/snap"), ""), timer, 100, 0, 5);
+        var results = match(mapMatcher, new double[][] {{43.7, 7.4}, {43.8, 7.5}});
+        assertEquals(2, results.size());
+        assertEquals(43.8 + OFFSET, results.get(1)[0], 0.000001);
+        assertEquals(2, snapRequests.get());
+    }
+
+    @Test
+    public void testDeadline() throws InterruptedException {
+        MapMatcherHandler handler = new MapMatcherHandler((latitude, longitude, callback) -> {
+        }, timer, 100);
+
+        Position position = new Position();
+        position.setLatitude(43.7);
+        position.setLongitude(7.4);
+        CountDownLatch latch = new CountDownLatch(1);
+        handler.onPosition(position, filtered -> latch.countDown());
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(43.7, position.getLatitude(), 0.000001);
+        assertEquals(7.4, position.getLongitude(), 0.000001);
+    }
 
     @Disabled
     @Test
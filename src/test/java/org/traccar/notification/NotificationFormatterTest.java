@@ -0,0 +1,106 @@
+package org.traccar.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.velocity.app.VelocityEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.traccar.MainModule;
+import org.traccar.api.signature.TokenManager;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.LocaleManager;
+import org.traccar.model.Device;
+import org.traccar.model.Event;
+import org.traccar.model.Position;
+import org.traccar.model.Server;
+import org.traccar.model.User;
+import org.traccar.notificators.NotificatorWeb;
+import org.traccar.session.ConnectionManager;
+import org.traccar.session.cache.CacheManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NotificationFormatterTest {
+
+    @Test
+    public void testTokenReuse() throws Exception {
+        Config config = new Config();
+        VelocityEngine velocityEngine = MainModule.provideVelocityEngine(config);
+        LocaleManager localeManager = new LocaleManager(config, new ObjectMapper());
+
+        TokenManager tokenManager = mock(TokenManager.class);
+        when(tokenManager.signToken(anyLong(), any())).thenReturn(new TokenManager.SignedToken(1, "token"));
+
+        Device device = new Device();
+        device.setId(1);
+        device.setName("test");
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getServer()).thenReturn(new Server());
+        when(cacheManager.getObject(eq(Device.class), anyLong())).thenReturn(device);
+        ConnectionManager connectionManager = mock(ConnectionManager.class);
+
+        var textTemplateFormatter = new TextTemplateFormatter(velocityEngine, tokenManager, localeManager, config);
+        var notificationFormatter = new NotificationFormatter(localeManager, cacheManager, textTemplateFormatter);
+        var notificatorWeb = new NotificatorWeb(connectionManager, notificationFormatter);
+
+        User user = new User();
+        user.setId(1);
+        Event event = new Event(Event.TYPE_ALARM, device.getId());
+        event.setEventTime(new Date());
+        event.set(Position.KEY_ALARM, Position.ALARM_SOS);
+        Position position = new Position();
+        position.setDeviceId(device.getId());
+        position.setLatitude(10);
+        position.setLongitude(20);
+
+        int count = 10;
+
+        for (int i = 0; i < count; i++) {
+            notificatorWeb.send(null, user, event, position);
+        }
+
+        for (int i = 0; i < count; i++) {
+            var message = notificationFormatter.formatMessage(null, user, event, position);
+            assertTrue(message.body().contains("token=token"));
+        }
+
+        verify(tokenManager, times(1)).signToken(eq(1L), any());
+        verify(connectionManager, times(count)).updateEvent(eq(true), eq(1L), any());
+    }
+
+    @Test
+    public void testTemplateAddedLater(@TempDir Path root) throws Exception {
+        Config config = new Config();
+        config.setString(Keys.TEMPLATES_ROOT, root.toString());
+        VelocityEngine velocityEngine = MainModule.provideVelocityEngine(config);
+        LocaleManager localeManager = new LocaleManager(config, new ObjectMapper());
+        TokenManager tokenManager = mock(TokenManager.class);
+        when(tokenManager.signToken(anyLong(), any())).thenReturn(new TokenManager.SignedToken(1, "token"));
+        var textTemplateFormatter = new TextTemplateFormatter(velocityEngine, tokenManager, localeManager, config);
+
+        User user = new User();
+        user.setId(1);
+        var context = textTemplateFormatter.prepareContext(new Server(), user);
+        assertEquals("custom", textTemplateFormatter.formatMessage(context, "custom", false).body());
+
+        Path file = root.resolve(Path.of("notifications", "en", "custom.vm"));
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "Custom body");
+
+        context = textTemplateFormatter.prepareContext(new Server(), user);
+        assertEquals("Custom body", textTemplateFormatter.formatMessage(context, "custom", false).body());
+    }
+
+}
@@ -1,24 +1,34 @@
 package org.traccar.reports;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.velocity.app.VelocityEngine;
+import org.h2.jdbcx.JdbcDataSource;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.traccar.BaseTest;
 import org.traccar.api.security.PermissionsService;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
+import org.traccar.helper.model.AttributeUtil;
+import org.traccar.helper.model.MotionSegmentUtil;
 import org.traccar.helper.model.PositionUtil;
 import org.traccar.model.Device;
+import org.traccar.model.MotionSegment;
 import org.traccar.model.Position;
 import org.traccar.reports.common.ReportUtils;
 import org.traccar.reports.model.StopReportItem;
 import org.traccar.reports.model.TripReportItem;
+import org.traccar.storage.DatabaseStorage;
 import org.traccar.storage.Storage;
 import org.traccar.storage.StorageException;
 
+import java.sql.Connection;
+import java.sql.Statement;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
@@ -30,6 +40,7 @@ import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -536,4 +547,181 @@ public class ReportUtilsTest extends BaseTest {
         assertEquals(1260000, itemStop.getDuration());
     }
 
+    private static final Date REPORT_FROM = new Date(1733011200000L);
+    private static final Date REPORT_TO = new Date(1767225600000L);
+
+    private static DatabaseStorage createPositionStorage(String name, int deviceCount, int rows) throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS tc_positions");
+            statement.execute("CREATE TABLE tc_positions ("
+                    + "id BIGINT PRIMARY KEY, deviceId BIGINT, fixTime TIMESTAMP, speed DOUBLE)");
+            statement.execute("CREATE INDEX tc_positions_device ON tc_positions (deviceId, fixTime)");
+            statement.execute("INSERT INTO tc_positions "
+                    + "SELECT x, MOD(x, " + deviceCount + ") + 1, "
+                    + "DATEADD('SECOND', x, TIMESTAMP '2025-01-01 00:00:00'), MOD(x * 7, 120) "
+                    + "FROM SYSTEM_RANGE(1, " + rows + ")");
+        }
+        return new DatabaseStorage(new Config(), dataSource, new ObjectMapper());
+    }
+
+    private static List<Device> createDevices(int deviceCount) {
+        List<Device> devices = new ArrayList<>();
+        for (int i = deviceCount; i > 0; i--) {
+            Device device = new Device();
+            device.setId(i);
+            devices.add(device);
+        }
+        return devices;
+    }
+
+    private static ReportUtils createReportUtils(Storage storage, int parallelism) {
+        Config config = new Config();
+        config.setString(Keys.REPORT_PARALLELISM, String.valueOf(parallelism));
+        return new ReportUtils(config, storage, mock(PermissionsService.class), mock(VelocityEngine.class), null);
+    }
+
+    private static List<String> computeDeviceSummaries(
+            ReportUtils reportUtils, Storage storage, List<Device> devices) throws StorageException {
+        return reportUtils.computeForDevices(devices, device -> {
+            try (var positions = PositionUtil.getPositionsStream(storage, device.getId(), REPORT_FROM, REPORT_TO)) {
+                int count = 0;
+                double maxSpeed = 0;
+                var iterator = positions.iterator();
+                while (iterator.hasNext()) {
+                    count += 1;
+                    maxSpeed = Math.max(maxSpeed, iterator.next().getSpeed());
+                }
+                return device.getId() + ":" + count + ":" + maxSpeed;
+            }
+        });
+    }
+
+    @Test
+    public void testComputeForDevices() throws Exception {
+        int deviceCount = 50;
+        Storage databaseStorage = createPositionStorage("reportpositions", deviceCount, 20000);
+        List<Device> devices = createDevices(deviceCount);
+
+        List<String> expected = computeDeviceSummaries(createReportUtils(databaseStorage, 1), databaseStorage, devices);
+        List<String> actual = computeDeviceSummaries(createReportUtils(databaseStorage, 8), databaseStorage, devices);
+
+        assertEquals(expected, actual);
+        assertEquals(deviceCount + ":400:113.0", actual.get(0));
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkComputeForDevices() throws Exception {
+        int deviceCount = 500;
+        Storage databaseStorage = createPositionStorage("reportbenchmark", deviceCount, 2_000_000);
+        List<Device> devices = createDevices(deviceCount);
+
+        for (int parallelism : new int[] {1, 4, 8}) {
+            ReportUtils reportUtils = createReportUtils(databaseStorage, parallelism);
+            long time = System.nanoTime();
+            computeDeviceSummaries(reportUtils, databaseStorage, devices);
+            System.out.printf("parallelism %d: %d ms%n", parallelism, (System.nanoTime() - time) / 1_000_000);
+        }
+    }
+
+    private MotionSegment segment(Position start, Position end, boolean motion, String tripsConfig) {
+        MotionSegment segment = new MotionSegment();
+        segment.setMotion(motion);
+        segment.setStartPositionId(start.getId());
+        segment.setStartTime(start.getFixTime());
+        segment.setEndPositionId(end.getId());
+        segment.setEndTime(end.getFixTime());
+        segment.setMaxSpeed(motion ? 10 : 0);
+        segment.setTripsConfig(tripsConfig);
+        return segment;
+    }
+
+    @Test
+    public void testStoredTrips() throws Exception {
+        Position stopStart = position(1, "2016-01-01 00:00:00.000", 0, 0);
+        Position tripStart = position(3, "2016-01-01 00:02:00.000", 10, 0);
+        Position tripEnd = position(6, "2016-01-01 00:05:00.000", 0, 3000);
+        Position stopEnd = position(8, "2016-01-01 00:25:00.000", 10, 3000);
+
+        Config config = mock(Config.class);
+        when(config.getBoolean(Keys.REPORT_TRIP_STORE)).thenReturn(true);
+        Device device = mockDevice(500, 300, 180, 900, false);
+        PermissionsService permissionsService = mock(PermissionsService.class);
+        String tripsConfig = MotionSegmentUtil.getTripsConfig(
+                config, new AttributeUtil.StorageProvider(config, storage, permissionsService, device));
+
+        when(storage.getObjects(eq(MotionSegment.class), any())).thenReturn(List.of(
+                segment(stopStart, tripStart, false, tripsConfig),
+                segment(tripStart, tripEnd, true, tripsConfig),
+                segment(tripEnd, stopEnd, false, tripsConfig)));
+        when(storage.getObject(eq(Position.class), any())).thenReturn(tripStart, tripEnd);
+
+        ReportUtils reportUtils = new ReportUtils(
+                config, storage, permissionsService, mock(VelocityEngine.class), null);
+        var trips = reportUtils.storedTripsAndStops(
+                device, stopStart.getFixTime(), stopEnd.getFixTime(), TripReportItem.class);
+
+        assertNotNull(trips);
+        assertEquals(1, trips.size());
+        TripReportItem itemTrip = trips.getFirst();
+        assertEquals(date("2016-01-01 00:02:00.000"), itemTrip.getStartTime());
+        assertEquals(date("2016-01-01 00:05:00.000"), itemTrip.getEndTime());
+        assertEquals(180000, itemTrip.getDuration());
+        assertEquals(10, itemTrip.getMaxSpeed(), 0.01);
+        assertEquals(3000, itemTrip.getDistance(), 0.01);
+
+        when(storage.getObjects(eq(MotionSegment.class), any())).thenReturn(List.of(
+                segment(stopStart, tripStart, false, tripsConfig),
+                segment(tripStart, tripEnd, true, "old:0")));
+        assertNull(reportUtils.storedTripsAndStops(
+                device, stopStart.getFixTime(), stopEnd.getFixTime(), TripReportItem.class));
+
+        when(storage.getObjects(eq(MotionSegment.class), any())).thenReturn(List.of(
+                segment(stopStart, tripStart, false, tripsConfig),
+                segment(tripEnd, stopEnd, false, tripsConfig)));
+        assertNull(reportUtils.storedTripsAndStops(
+                device, stopStart.getFixTime(), stopEnd.getFixTime(), TripReportItem.class));
+    }
+
+    @Test
+    public void testComputeForDevices() throws Exception {
+        int deviceCount = 50;
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:reportpositions;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS report_positions");
+            statement.execute("CREATE TABLE report_positions (deviceId BIGINT, fixTime TIMESTAMP, speed DOUBLE)");
+            statement.execute("CREATE INDEX report_positions_device ON report_positions (deviceId, fixTime)");
+            statement.execute("INSERT INTO report_positions "
+                    + "SELECT MOD(x, " + deviceCount + ") + 1, DATEADD('SECOND', x, TIMESTAMP '2025-01-01 00:00:00'), "
+                    + "MOD(x * 7, 120) FROM SYSTEM_RANGE(1, 20000)");
+        }
+
+        List<Device> devices = new ArrayList<>();
+        for (int i = deviceCount; i > 0; i--) {
+            Device device = new Device();
+            device.setId(i);
+            devices.add(device);
+        }
+
+        Config sequentialConfig = new Config();
+        sequentialConfig.setString(Keys.REPORT_PARALLELISM, "1");
+        ReportUtils sequential = new ReportUtils(
+                sequentialConfig, storage, mock(PermissionsService.class), mock(VelocityEngine.class), null);
+        Config parallelConfig = new Config();
+        parallelConfig.setString(Keys.REPORT_PARALLELISM, "8");
+        ReportUtils parallel = new ReportUtils(
+                parallelConfig, storage, mock(PermissionsService.class), mock(VelocityEngine.class), null);
+
+        List<String> expected = computeDeviceSummaries(sequential, dataSource, devices);
+        List<String> actual = computeDeviceSummaries(parallel, dataSource, devices);
+
+        assertEquals(expected, actual);
+        assertTrue(actual.get(0).startsWith(deviceCount + ":"));
+    }
+
 }
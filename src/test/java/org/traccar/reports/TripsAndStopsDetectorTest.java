@@ -0,0 +1,57 @@
+package org.traccar.reports;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.model.Position;
+import org.traccar.reports.common.TripsAndStopsDetector;
+import org.traccar.reports.common.TripsConfig;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TripsAndStopsDetectorTest {
+
+    private static final int STOPPED = 60;
+    private static final int MOVING = 120;
+
+    private static Position createPosition(long index) {
+        long cycle = index / (STOPPED + MOVING);
+        long offset = index % (STOPPED + MOVING);
+        boolean moving = offset >= STOPPED;
+        long movingSteps = cycle * MOVING + Math.max(0, offset - STOPPED);
+
+        Position position = new Position();
+        position.setId(index + 1);
+        position.setDeviceId(1);
+        position.setTime(new Date(1700000000000L + index * 10000L));
+        position.setValid(true);
+        position.setSpeed(moving ? 10 : 0);
+        position.set(Position.KEY_MOTION, moving);
+        position.set(Position.KEY_TOTAL_DISTANCE, movingSteps * 50.0);
+        return position;
+    }
+
+    @Test
+    public void testStreamedTrips() throws Exception {
+        int cycles = 20;
+        long count = (long) cycles * (STOPPED + MOVING);
+
+        TripsConfig tripsConfig = new TripsConfig(500, 300000, 300000, 3600000, false, false);
+        AtomicLong trips = new AtomicLong();
+        AtomicLong duration = new AtomicLong();
+        TripsAndStopsDetector detector = new TripsAndStopsDetector(tripsConfig, true, (start, end, maxSpeed) -> {
+            trips.incrementAndGet();
+            duration.addAndGet(end.getFixTime().getTime() - start.getFixTime().getTime());
+        });
+
+        for (long i = 0; i < count; i++) {
+            detector.process(createPosition(i));
+        }
+        detector.finish();
+
+        assertEquals(cycles, trips.get());
+        assertEquals((long) (cycles - 1) * MOVING * 10000 + (MOVING - 1) * 10000L, duration.get());
+    }
+
+}
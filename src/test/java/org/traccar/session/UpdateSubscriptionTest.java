@@ -0,0 +1,141 @@
+package org.traccar.session;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.model.Device;
+import org.traccar.model.Event;
+import org.traccar.model.LogRecord;
+import org.traccar.model.Position;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UpdateSubscriptionTest {
+
+    private static class RecordingListener implements ConnectionManager.UpdateListener {
+
+        private final List<Object> updates = new ArrayList<>();
+
+        @Override
+        public void onKeepalive() {
+            updates.add("keepalive");
+        }
+
+        @Override
+        public void onUpdateDevice(Device device) {
+            updates.add(device);
+        }
+
+        @Override
+        public void onUpdatePosition(Position position) {
+            updates.add(position);
+        }
+
+        @Override
+        public void onUpdateEvent(Event event) {
+            updates.add(event);
+        }
+
+        @Override
+        public void onUpdateLog(LogRecord record) {
+            updates.add(record);
+        }
+
+    }
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static Position createPosition(long deviceId) {
+        Position position = new Position();
+        position.setDeviceId(deviceId);
+        return position;
+    }
+
+    @Test
+    public void testCoalescing() {
+        var listener = new RecordingListener();
+        var subscription = new UpdateSubscription(listener, tasks::add, 10, new UpdateSubscription.Statistics());
+
+        Position first = createPosition(1);
+        Position second = createPosition(2);
+        Position latest = createPosition(1);
+        subscription.offerPosition(first);
+        subscription.offerPosition(second);
+        subscription.offerPosition(latest);
+        subscription.offerKeepalive();
+        subscription.offerKeepalive();
+        assertEquals(1, tasks.size());
+
+        runTasks();
+        assertEquals(List.of("keepalive", latest, second), listener.updates);
+    }
+
+    @Test
+    public void testDropOldest() {
+        var listener = new RecordingListener();
+        var statistics = new UpdateSubscription.Statistics();
+        var subscription = new UpdateSubscription(listener, tasks::add, 2, statistics);
+
+        Event first = new Event(Event.TYPE_ALARM, 1);
+        Event second = new Event(Event.TYPE_ALARM, 1);
+        Event third = new Event(Event.TYPE_ALARM, 1);
+        subscription.offerEvent(first);
+        subscription.offerEvent(second);
+        subscription.offerEvent(third);
+
+        runTasks();
+        assertEquals(List.of(second, third), listener.updates);
+        assertEquals(1, statistics.drainDropped());
+        assertEquals(0, statistics.drainDropped());
+    }
+
+    @Test
+    public void testCancel() {
+        var listener = new RecordingListener();
+        var subscription = new UpdateSubscription(listener, tasks::add, 10, new UpdateSubscription.Statistics());
+
+        subscription.offerPosition(createPosition(1));
+        subscription.offerEvent(new Event(Event.TYPE_ALARM, 1));
+        assertEquals(1, tasks.size());
+
+        subscription.cancel();
+        runTasks();
+        subscription.offerPosition(createPosition(1));
+        runTasks();
+        assertTrue(listener.updates.isEmpty());
+    }
+
+    @Test
+    public void testCancelDuringDelivery() {
+        UpdateSubscription[] subscription = new UpdateSubscription[1];
+        var listener = new RecordingListener() {
+            @Override
+            public void onUpdatePosition(Position position) {
+                super.onUpdatePosition(position);
+                subscription[0].cancel();
+            }
+        };
+        subscription[0] = new UpdateSubscription(listener, tasks::add, 10, new UpdateSubscription.Statistics());
+
+        Position position = createPosition(1);
+        subscription[0].offerPosition(position);
+        subscription[0].offerPosition(createPosition(2));
+        runTasks();
+
+        assertEquals(1, listener.updates.size());
+        assertSame(position, listener.updates.getFirst());
+    }
+
+}
@@ -2,7 +2,11 @@ package org.traccar.session.cache;
 
 import org.junit.jupiter.api.Test;
 import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.helper.model.AttributeUtil;
 import org.traccar.model.Device;
+import org.traccar.model.Geofence;
+import org.traccar.model.ObjectOperation;
 import org.traccar.model.Position;
 import org.traccar.model.User;
 import org.traccar.broadcast.BroadcastService;
@@ -11,9 +15,12 @@ import org.traccar.storage.Storage;
 import org.traccar.storage.query.Request;
 
 import java.util.List;
+import java.util.Set;
 import java.util.Date;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
@@ -57,4 +64,59 @@ public class CacheManagerTest {
         assertSame(replacement, cacheManager.getPosition(deviceId));
     }
 
+    @Test
+    public void testResolvedAttributesInvalidation() throws Exception {
+
+        Storage storage = mock(Storage.class);
+        BroadcastService broadcastService = mock(BroadcastService.class);
+        Device device = new Device();
+        device.setId(1);
+        device.set(Keys.FILTER_ACCURACY.getKey(), 10);
+        when(storage.getObject(eq(Server.class), any(Request.class))).thenReturn(new Server());
+        when(storage.getObject(eq(Device.class), any(Request.class))).thenReturn(device);
+        when(storage.getPermissions(eq(Device.class), any())).thenReturn(List.of());
+        when(storage.getPermissions(eq(User.class), eq(Device.class))).thenReturn(List.of());
+        doNothing().when(broadcastService).registerListener(any());
+
+        CacheManager cacheManager = new CacheManager(new Config(), storage, broadcastService);
+        cacheManager.addDevice(1, new Object());
+
+        assertEquals(10, AttributeUtil.lookup(cacheManager, Keys.FILTER_ACCURACY, 1));
+        assertEquals(10, AttributeUtil.lookup(cacheManager, Keys.FILTER_ACCURACY, 1));
+
+        Device updated = new Device();
+        updated.setId(1);
+        updated.set(Keys.FILTER_ACCURACY.getKey(), 20);
+        when(storage.getObject(eq(Device.class), any(Request.class))).thenReturn(updated);
+        cacheManager.invalidateObject(false, Device.class, 1, ObjectOperation.UPDATE);
+
+        assertEquals(20, AttributeUtil.lookup(cacheManager, Keys.FILTER_ACCURACY, 1));
+    }
+
+    @Test
+    public void testDeviceObjectsInvalidation() throws Exception {
+
+        Storage storage = mock(Storage.class);
+        BroadcastService broadcastService = mock(BroadcastService.class);
+        Device device = new Device();
+        device.setId(1);
+        Geofence geofence = new Geofence();
+        geofence.setId(2);
+        when(storage.getObject(eq(Server.class), any(Request.class))).thenReturn(new Server());
+        when(storage.getObject(eq(Device.class), any(Request.class))).thenReturn(device);
+        when(storage.getObject(eq(Geofence.class), any(Request.class))).thenReturn(geofence);
+        doNothing().when(broadcastService).registerListener(any());
+
+        CacheManager cacheManager = new CacheManager(new Config(), storage, broadcastService);
+        cacheManager.addDevice(1, new Object());
+
+        var before = cacheManager.getDeviceObjects(1, Geofence.class);
+        assertTrue(before.isEmpty());
+        assertSame(before, cacheManager.getDeviceObjects(1, Geofence.class));
+
+        cacheManager.invalidatePermission(false, Device.class, 1, Geofence.class, 2, true);
+
+        assertEquals(Set.of(geofence), cacheManager.getDeviceObjects(1, Geofence.class));
+    }
+
 }
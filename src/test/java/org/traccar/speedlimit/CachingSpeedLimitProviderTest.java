@@ -0,0 +1,118 @@
+package org.traccar.speedlimit;
+
+import com.sun.net.httpserver.HttpServer;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.traccar.config.Config;
+import org.traccar.database.StatisticsManager;
+import org.traccar.helper.DistanceCalculator;
+import org.traccar.helper.UnitsConverter;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class CachingSpeedLimitProviderTest {
+
+    private static final double GRID = 50;
+
+    private final Client client = ClientBuilder.newClient();
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/interpreter", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = "{\"elements\":[{\"tags\":{\"maxspeed\":\"50\"}}]}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private List<Double> lookup(
+            SpeedLimitProvider provider, int count, double latitude, double longitude) throws Exception {
+        List<Double> results = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            provider.getSpeedLimit(latitude, longitude, new SpeedLimitProvider.SpeedLimitProviderCallback() {
+                @Override
+                public void onSuccess(double speedLimit) {
+                    results.add(speedLimit);
+                    latch.countDown();
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        return results;
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        String url = "http://localhost:" + server.getAddress().getPort() + "/api/interpreter";
+        StatisticsManager statisticsManager = mock(StatisticsManager.class);
+        var provider = new CachingSpeedLimitProvider(
+                new OverpassSpeedLimitProvider(new Config(), client, url), statisticsManager, 100, GRID, 60000);
+
+        double step = DistanceCalculator.getLatitudeDelta(GRID);
+        double latitude = step * 22000;
+        double longitude = step * 44000;
+        double expected = UnitsConverter.knotsFromKph(50);
+
+        List<Double> results = lookup(provider, 10, latitude, longitude);
+        assertEquals(10, results.size());
+        results.forEach(result -> assertEquals(expected, result, 0.01));
+        assertEquals(1, requests.get());
+
+        results = lookup(provider, 1, latitude + step * 0.2, longitude - step * 0.2);
+        assertEquals(expected, results.getFirst(), 0.01);
+        assertEquals(1, requests.get());
+
+        lookup(provider, 1, latitude + step * 3, longitude);
+        assertEquals(2, requests.get());
+
+        ArgumentCaptor<LongSupplier> hits = ArgumentCaptor.forClass(LongSupplier.class);
+        ArgumentCaptor<LongSupplier> misses = ArgumentCaptor.forClass(LongSupplier.class);
+        verify(statisticsManager).registerGauge(eq("speedLimitCacheHits"), hits.capture());
+        verify(statisticsManager).registerGauge(eq("speedLimitCacheMisses"), misses.capture());
+        assertEquals(10, hits.getValue().getAsLong());
+        assertEquals(2, misses.getValue().getAsLong());
+    }
+
+}
@@ -0,0 +1,149 @@
+package org.traccar.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.AttributeMap;
+import org.traccar.model.Position;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AttributesCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static Position createPosition(int i) {
+        Position position = new Position();
+        position.setDeviceId(1 + i % 10);
+        position.setFixTime(new Date(1700000000000L + i * 1000L));
+        position.set(Position.KEY_INDEX, i);
+        position.set(Position.KEY_SATELLITES, i % 12);
+        position.set(Position.KEY_IGNITION, i % 2 == 0);
+        position.set(Position.KEY_ODOMETER, 1000000L + i * 10L);
+        position.set(Position.KEY_POWER, 12.5 + i % 10 * 0.1);
+        position.set(Position.KEY_DISTANCE, i * 0.37);
+        position.set(Position.KEY_TOTAL_DISTANCE, i * 12.1);
+        position.set(Position.KEY_MOTION, i % 3 != 0);
+        position.set(Position.PREFIX_IO + 1, "value" + i % 5);
+        return position;
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        AttributeMap attributes = new AttributeMap();
+        attributes.put("int", 42);
+        attributes.put("negative", -7);
+        attributes.put("short", (short) 3);
+        attributes.put("smallLong", 5L);
+        attributes.put("long", 1L << 40);
+        attributes.put("double", 1.1);
+        attributes.put("float", 0.1f);
+        attributes.put("true", true);
+        attributes.put("false", false);
+        attributes.put("string", "text \u0442\u0435\u043a\u0441\u0442");
+        attributes.put("null", null);
+        attributes.put("list", List.of(1, "two"));
+        attributes.put("map", Map.of("nested", 1.5));
+        attributes.put(Position.KEY_IGNITION, true);
+        attributes.put(Position.KEY_ODOMETER, 123456789012L);
+
+        String encoded = AttributesCodec.encode(objectMapper, attributes);
+        assertTrue(AttributesCodec.isEncoded(encoded));
+        assertFalse(AttributesCodec.isEncoded(objectMapper.writeValueAsString(attributes)));
+
+        AttributeMap expected = objectMapper.readValue(
+                objectMapper.writeValueAsString(attributes), AttributeMap.class);
+        AttributeMap decoded = AttributesCodec.decode(objectMapper, encoded);
+        assertEquals(expected, decoded);
+        for (var entry : expected.entrySet()) {
+            Object value = decoded.get(entry.getKey());
+            assertEquals(entry.getValue() != null ? entry.getValue().getClass() : null,
+                    value != null ? value.getClass() : null);
+        }
+    }
+
+    private void runDatabase(boolean compact, int rows) throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:attributescodectest;DB_CLOSE_DELAY=-1");
+        Config config = new Config();
+        config.setString(Keys.DATABASE_COMPACT_ATTRIBUTES, String.valueOf(compact));
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS test_attributes");
+            statement.execute(
+                    "CREATE TABLE test_attributes ("
+                            + "id BIGINT AUTO_INCREMENT PRIMARY KEY,"
+                            + "deviceId BIGINT,"
+                            + "fixTime TIMESTAMP,"
+                            + "attributes VARCHAR(4000))");
+        }
+
+        List<String> columns = List.of("deviceId", "fixTime", "attributes");
+        String insert = "INSERT INTO test_attributes(deviceId, fixTime, attributes) VALUES (?, ?, ?)";
+
+        for (int offset = 0; offset < rows; offset += 1000) {
+            try (QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, insert)) {
+                for (int i = offset; i < Math.min(offset + 1000, rows); i++) {
+                    builder.setObject(createPosition(i), columns);
+                    builder.addBatch();
+                }
+                builder.executeBatch();
+            }
+        }
+
+        long count = 0;
+        String select = "SELECT deviceId, fixTime, attributes FROM test_attributes ORDER BY id";
+        try (QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, select);
+             var stream = builder.executeQueryStreamed(Position.class)) {
+            var iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Position position = iterator.next();
+                Position expected = createPosition((int) count);
+                assertEquals(
+                        objectMapper.readValue(
+                                objectMapper.writeValueAsString(expected.getAttributes()), AttributeMap.class),
+                        position.getAttributes());
+                count += 1;
+            }
+        }
+        assertEquals(rows, count);
+    }
+
+    @Test
+    public void testDatabaseRoundTrip() throws Exception {
+        runDatabase(false, 2000);
+        runDatabase(true, 2000);
+    }
+
+    @Test
+    public void testLegacyRows() throws Exception {
+        String json = objectMapper.writeValueAsString(createPosition(1).getAttributes());
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:attributescodeclegacy;DB_CLOSE_DELAY=-1");
+        Config config = new Config();
+        config.setString(Keys.DATABASE_COMPACT_ATTRIBUTES, "true");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE test_legacy (attributes VARCHAR(4000))");
+            statement.execute("INSERT INTO test_legacy VALUES ('" + json + "')");
+        }
+        try (QueryBuilder builder = QueryBuilder.create(
+                config, dataSource, objectMapper, "SELECT attributes FROM test_legacy");
+             var stream = builder.executeQueryStreamed(Position.class)) {
+            Position position = stream.findFirst().orElseThrow();
+            assertEquals(objectMapper.readValue(json, AttributeMap.class), position.getAttributes());
+        }
+    }
+
+}
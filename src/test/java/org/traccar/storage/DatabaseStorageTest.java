@@ -0,0 +1,155 @@
+package org.traccar.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Order;
+import org.traccar.storage.query.Request;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DatabaseStorageTest {
+
+    private DataSource dataSource;
+    private Config config;
+    private ObjectMapper objectMapper;
+
+    @StorageName("test_position")
+    public static class TestPosition {
+        private long id;
+        private long deviceId;
+        private Date fixTime;
+        private double latitude;
+        private double longitude;
+        private double speed;
+        private String address;
+
+        public long getId() { return id; }
+        public void setId(long id) { this.id = id; }
+        public long getDeviceId() { return deviceId; }
+        public void setDeviceId(long deviceId) { this.deviceId = deviceId; }
+        public Date getFixTime() { return fixTime; }
+        public void setFixTime(Date fixTime) { this.fixTime = fixTime; }
+        public double getLatitude() { return latitude; }
+        public void setLatitude(double latitude) { this.latitude = latitude; }
+        public double getLongitude() { return longitude; }
+        public void setLongitude(double longitude) { this.longitude = longitude; }
+        public double getSpeed() { return speed; }
+        public void setSpeed(double speed) { this.speed = speed; }
+        public String getAddress() { return address; }
+        public void setAddress(String address) { this.address = address; }
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:databasestoragetest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        dataSource = h2;
+        config = new Config();
+        objectMapper = new ObjectMapper();
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS test_position");
+            statement.execute(
+                    "CREATE TABLE test_position ("
+                            + "id BIGINT AUTO_INCREMENT PRIMARY KEY,"
+                            + "deviceId BIGINT,"
+                            + "fixTime TIMESTAMP,"
+                            + "latitude DOUBLE,"
+                            + "longitude DOUBLE,"
+                            + "speed DOUBLE,"
+                            + "address VARCHAR(512))");
+        }
+    }
+
+    private static List<TestPosition> createPositions(int count) {
+        List<TestPosition> positions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TestPosition position = new TestPosition();
+            position.setDeviceId(1 + i % 10);
+            position.setFixTime(new Date(1700000000000L + i * 1000L));
+            position.setLatitude(10 + i * 0.001);
+            position.setLongitude(20 + i * 0.001);
+            position.setSpeed(i % 100);
+            position.setAddress("address " + i);
+            positions.add(position);
+        }
+        return positions;
+    }
+
+    @Test
+    public void testAddObjects() throws Exception {
+        DatabaseStorage storage = new DatabaseStorage(config, dataSource, objectMapper);
+        Request request = new Request(new Columns.Exclude("id"));
+
+        List<TestPosition> positions = createPositions(250);
+        List<Long> ids = storage.addObjects(positions, request);
+        assertEquals(positions.size(), ids.size());
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i) > ids.get(i - 1));
+        }
+
+        List<TestPosition> loaded = storage.getObjects(
+                TestPosition.class, new Request(new Columns.All(), new Order("id")));
+        assertEquals(positions.size(), loaded.size());
+        for (int i = 0; i < loaded.size(); i++) {
+            assertEquals((long) ids.get(i), loaded.get(i).getId());
+            assertEquals(positions.get(i).getAddress(), loaded.get(i).getAddress());
+            assertEquals(positions.get(i).getFixTime(), loaded.get(i).getFixTime());
+        }
+    }
+
+    @Test
+    public void testAddObjectsChunked() throws Exception {
+        DatabaseStorage storage = new DatabaseStorage(config, dataSource, objectMapper);
+        Request request = new Request(new Columns.Exclude("id"));
+
+        List<TestPosition> positions = createPositions(6000);
+        List<Long> ids = storage.addObjects(positions, request);
+        assertEquals(positions.size(), ids.size());
+        assertEquals(positions.size(), ids.stream().distinct().count());
+
+        TestPosition last = storage.getObject(
+                TestPosition.class, new Request(new Columns.All(), new Condition.Equals("id", ids.getLast())));
+        assertEquals(positions.getLast().getAddress(), last.getAddress());
+    }
+
+    @Test
+    public void testGetObjectById() throws Exception {
+        DatabaseStorage storage = new DatabaseStorage(config, dataSource, objectMapper);
+        List<Long> ids = storage.addObjects(createPositions(100), new Request(new Columns.Exclude("id")));
+
+        for (long id : ids) {
+            TestPosition position = storage.getObject(
+                    TestPosition.class, new Request(new Columns.All(), new Condition.Equals("id", id)));
+            assertEquals(id, position.getId());
+        }
+    }
+
+    @Test
+    public void testPagedQueries() throws Exception {
+        DatabaseStorage storage = new DatabaseStorage(config, dataSource, objectMapper);
+        List<Long> ids = storage.addObjects(createPositions(100), new Request(new Columns.Exclude("id")));
+
+        for (int offset = 0; offset < ids.size(); offset++) {
+            List<TestPosition> page = storage.getObjects(
+                    TestPosition.class, new Request(new Columns.All(), new Order("id", false, 1, offset)));
+            assertEquals(1, page.size());
+            assertEquals((long) ids.get(offset), page.getFirst().getId());
+        }
+    }
+
+}